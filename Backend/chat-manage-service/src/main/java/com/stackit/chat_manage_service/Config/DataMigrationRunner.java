@@ -0,0 +1,229 @@
+package com.stackit.chat_manage_service.Config;
+
+import com.stackit.chat_manage_service.Entity.converters.CompressedTextConverter;
+import com.stackit.chat_manage_service.Utills.ExcerptUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-off data migrations that Hibernate's schema update cannot express. Each step
+ * checks whether it still has work to do, so running it on every startup is harmless.
+ * <p>
+ * Every step runs while this bean is initialized, which depends on the entity manager
+ * factory and so follows the schema update. Every in-memory index depends on this bean
+ * and is only loaded from {@code afterSingletonsInstantiated}, after all singletons are
+ * initialized, so no index or list view sees a row whose body, excerpt or denormalized
+ * counters have not been migrated yet.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class DataMigrationRunner implements InitializingBean {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.richtext.excerpt-length:200}")
+    private int excerptLength;
+
+    @Value("${app.migration.drop-legacy-body-columns:false}")
+    private boolean dropLegacyBodyColumns;
+
+    @Override
+    public void afterPropertiesSet() {
+        migrateBodies("questions", "description");
+        migrateBodies("answers", "content");
+        if (dropLegacyBodyColumns) {
+            dropLegacyBodyColumn("questions", "description");
+            dropLegacyBodyColumn("answers", "content");
+        }
+        backfillExcerpts("questions");
+        backfillExcerpts("answers");
+        backfillQuestionActivity();
+        backfillAnswerScores();
+    }
+
+    /**
+     * Copies a legacy inline TEXT column into rich_text_bodies. The column is kept as a
+     * fallback and only made nullable, since new rows no longer write it; dropping it is
+     * a separate step behind app.migration.drop-legacy-body-columns.
+     */
+    private void migrateBodies(String table, String legacyColumn) {
+        if (!columnExists(table, legacyColumn)) {
+            return;
+        }
+
+        CompressedTextConverter converter = new CompressedTextConverter();
+        int migrated = 0;
+        List<Map<String, Object>> rows;
+        do {
+            rows = jdbcTemplate.queryForList(
+                    "SELECT id, " + legacyColumn + " AS body FROM " + table +
+                            " WHERE body_id IS NULL LIMIT " + BATCH_SIZE);
+
+            List<Map<String, Object>> batch = rows;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Map<String, Object> row : batch) {
+                    Object body = row.get("body");
+                    byte[] stored = converter.convertToDatabaseColumn(body != null ? body.toString() : "");
+
+                    KeyHolder keyHolder = new GeneratedKeyHolder();
+                    jdbcTemplate.update(connection -> {
+                        PreparedStatement ps = connection.prepareStatement(
+                                "INSERT INTO rich_text_bodies (content) VALUES (?)", Statement.RETURN_GENERATED_KEYS);
+                        ps.setBytes(1, stored);
+                        return ps;
+                    }, keyHolder);
+
+                    jdbcTemplate.update("UPDATE " + table + " SET body_id = ? WHERE id = ?",
+                            keyHolder.getKey().longValue(), ((Number) row.get("id")).longValue());
+                }
+            });
+            migrated += rows.size();
+        } while (rows.size() == BATCH_SIZE);
+
+        if (!columnNullable(table, legacyColumn)) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY " + legacyColumn + " TEXT NULL");
+        }
+        if (migrated > 0) {
+            log.info("Copied {} {}.{} values into rich_text_bodies", migrated, table, legacyColumn);
+        }
+    }
+
+    /**
+     * Drops a legacy body column, but only after checking that every row has a body and
+     * that every copied body matches the legacy value. Any mismatch keeps the column.
+     */
+    private void dropLegacyBodyColumn(String table, String legacyColumn) {
+        if (!columnExists(table, legacyColumn)) {
+            return;
+        }
+
+        Integer missing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE body_id IS NULL", Integer.class);
+        if (missing != null && missing > 0) {
+            log.error("Keeping {}.{}: {} rows have no body yet", table, legacyColumn, missing);
+            return;
+        }
+
+        CompressedTextConverter converter = new CompressedTextConverter();
+        long lastId = 0;
+        int verified = 0;
+        List<Map<String, Object>> rows;
+        do {
+            rows = jdbcTemplate.queryForList(
+                    "SELECT t.id, t." + legacyColumn + " AS legacy, b.content FROM " + table + " t " +
+                            "JOIN rich_text_bodies b ON b.id = t.body_id " +
+                            "WHERE t.id > ? AND t." + legacyColumn + " IS NOT NULL ORDER BY t.id LIMIT " + BATCH_SIZE,
+                    lastId);
+
+            for (Map<String, Object> row : rows) {
+                String body = converter.convertToEntityAttribute((byte[]) row.get("content"));
+                if (!row.get("legacy").toString().equals(body)) {
+                    log.error("Keeping {}.{}: the copied body of row {} does not match", table, legacyColumn, row.get("id"));
+                    return;
+                }
+                lastId = ((Number) row.get("id")).longValue();
+            }
+            verified += rows.size();
+        } while (rows.size() == BATCH_SIZE);
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN " + legacyColumn);
+        log.info("Verified {} copied {} bodies and dropped {}.{}", verified, table, table, legacyColumn);
+    }
+
+    /**
+     * Generates excerpts for rows written before the excerpt column existed.
+     */
+    private void backfillExcerpts(String table) {
+        CompressedTextConverter converter = new CompressedTextConverter();
+        int backfilled = 0;
+        List<Map<String, Object>> rows;
+        do {
+            rows = jdbcTemplate.queryForList(
+                    "SELECT t.id, b.content FROM " + table + " t JOIN rich_text_bodies b ON b.id = t.body_id " +
+                            "WHERE t.excerpt IS NULL LIMIT " + BATCH_SIZE);
+
+            List<Object[]> updates = rows.stream()
+                    .map(row -> new Object[]{
+                            ExcerptUtils.excerpt(converter.convertToEntityAttribute((byte[]) row.get("content")), excerptLength),
+                            row.get("id")})
+                    .toList();
+            jdbcTemplate.batchUpdate("UPDATE " + table + " SET excerpt = ? WHERE id = ?", updates);
+            backfilled += rows.size();
+        } while (rows.size() == BATCH_SIZE);
+
+        if (backfilled > 0) {
+            log.info("Backfilled {} {} excerpts", backfilled, table);
+        }
+    }
+
+    /**
+     * Computes answer_count and last_activity_at for questions created before the columns
+     * existed. New questions get last_activity_at on insert, so NULL marks a legacy row.
+     */
+    private void backfillQuestionActivity() {
+        int updated = jdbcTemplate.update(
+                "UPDATE questions q LEFT JOIN (" +
+                        "SELECT question_id, COUNT(*) AS answers, MAX(created_at) AS last_answer_at " +
+                        "FROM answers WHERE is_active = true GROUP BY question_id) a ON a.question_id = q.id " +
+                        "SET q.answer_count = COALESCE(a.answers, 0), " +
+                        "q.last_activity_at = GREATEST(COALESCE(q.updated_at, q.created_at), " +
+                        "COALESCE(a.last_answer_at, q.created_at)) " +
+                        "WHERE q.last_activity_at IS NULL");
+
+        if (updated > 0) {
+            log.info("Backfilled answer_count and last_activity_at for {} questions", updated);
+        }
+    }
+
+    /**
+     * Sets answer_score for questions whose answers were voted on before the column
+     * existed. The column is added as 0, so only questions that drifted from the sum of
+     * their active answers' scores are written.
+     */
+    private void backfillAnswerScores() {
+        int updated = jdbcTemplate.update(
+                "UPDATE questions q LEFT JOIN (" +
+                        "SELECT question_id, SUM(score) AS total FROM answers " +
+                        "WHERE is_active = true GROUP BY question_id) a ON a.question_id = q.id " +
+                        "SET q.answer_score = COALESCE(a.total, 0) " +
+                        "WHERE q.answer_score <> COALESCE(a.total, 0)");
+
+        if (updated > 0) {
+            log.info("Backfilled answer_score for {} questions", updated);
+        }
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                        "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?",
+                Integer.class, table, column);
+        return count != null && count > 0;
+    }
+
+    private boolean columnNullable(String table, String column) {
+        String nullable = jdbcTemplate.queryForObject(
+                "SELECT is_nullable FROM information_schema.columns " +
+                        "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?",
+                String.class, table, column);
+        return "YES".equals(nullable);
+    }
+}
@@ -2,6 +2,7 @@ package com.stackit.chat_manage_service.Controller;
 
 import com.stackit.chat_manage_service.Payload.Request.CreateAnswerRequest;
 import com.stackit.chat_manage_service.Payload.Response.AnswerResponse;
+import com.stackit.chat_manage_service.Payload.Response.CursorPageResponse;
 import com.stackit.chat_manage_service.Service.AnswerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -58,6 +59,20 @@ public class AnswerController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/question/{questionId}/page")
+    @Operation(summary = "Get answers for question (cursor)",
+            description = "Retrieve answers for a question in ranking order, one cursor page at a time")
+    public ResponseEntity<CursorPageResponse<AnswerResponse>> getAnswersByQuestionPage(
+            @Parameter(description = "Question ID") @PathVariable Long questionId,
+            @Parameter(description = "Cursor from the previous page's nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Current user ID for personalization") @RequestParam(required = false) Long currentUserId) {
+
+        CursorPageResponse<AnswerResponse> response =
+                answerService.getAnswersByQuestion(questionId, cursor, size, currentUserId);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get answers by user", description = "Retrieve paginated answers posted by a specific user")
     public ResponseEntity<Page<AnswerResponse>> getAnswersByUser(
@@ -1,11 +1,19 @@
 package com.stackit.chat_manage_service.Controller;
 
 import com.stackit.chat_manage_service.Payload.Request.CreateQuestionRequest;
+import com.stackit.chat_manage_service.Payload.Request.SimilarQuestionsRequest;
+import com.stackit.chat_manage_service.Payload.Response.CursorPageResponse;
+import com.stackit.chat_manage_service.Payload.Response.QuestionPageResponse;
 import com.stackit.chat_manage_service.Payload.Response.QuestionResponse;
+import com.stackit.chat_manage_service.Payload.Response.QuestionSuggestionResponse;
+import com.stackit.chat_manage_service.Payload.Response.SimilarQuestionResponse;
 import com.stackit.chat_manage_service.Service.QuestionService;
+import com.stackit.chat_manage_service.Service.QuestionTypeaheadIndex;
+import com.stackit.chat_manage_service.Service.ViewSketchBuffer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +21,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,6 +36,7 @@ import java.util.List;
 public class QuestionController {
 
     private final QuestionService questionService;
+    private final QuestionTypeaheadIndex questionTypeaheadIndex;
 
     @PostMapping
     @Operation(summary = "Create a new question", description = "Create a new question with title, description, and tags")
@@ -38,13 +48,41 @@ public class QuestionController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping("/similar")
+    @Operation(summary = "Find similar questions", description = "Find existing questions that look like near-duplicates of a draft, before it is posted")
+    public ResponseEntity<List<SimilarQuestionResponse>> findSimilarQuestions(
+            @Valid @RequestBody SimilarQuestionsRequest request) {
+
+        List<SimilarQuestionResponse> response =
+                questionService.findSimilarQuestions(request.getTitle(), request.getDescription(), null);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get question by ID", description = "Retrieve a specific question with its details and answers")
     public ResponseEntity<QuestionResponse> getQuestion(
             @Parameter(description = "Question ID") @PathVariable Long id,
-            @Parameter(description = "Current user ID for personalization") @RequestParam(required = false) Long currentUserId) {
+            @Parameter(description = "Current user ID for personalization") @RequestParam(required = false) Long currentUserId,
+            HttpServletRequest request) {
 
-        QuestionResponse response = questionService.getQuestionById(id, currentUserId);
+        long viewerFingerprint = ViewSketchBuffer.fingerprint(currentUserId,
+                request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT));
+        QuestionResponse response = questionService.getQuestionById(id, currentUserId, viewerFingerprint);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}/page")
+    @Operation(summary = "Get question page",
+            description = "Retrieve a question with its tags, ranked answers and the viewer's votes in one request")
+    public ResponseEntity<QuestionPageResponse> getQuestionPage(
+            @Parameter(description = "Question ID") @PathVariable Long id,
+            @Parameter(description = "Current user ID for personalization") @RequestParam(required = false) Long currentUserId,
+            @Parameter(description = "Number of answers to include") @RequestParam(defaultValue = "20") int answerSize,
+            HttpServletRequest request) {
+
+        long viewerFingerprint = ViewSketchBuffer.fingerprint(currentUserId,
+                request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT));
+        QuestionPageResponse response = questionService.getQuestionPage(id, currentUserId, viewerFingerprint, answerSize);
         return ResponseEntity.ok(response);
     }
 
@@ -53,9 +91,13 @@ public class QuestionController {
     public ResponseEntity<Page<QuestionResponse>> getAllQuestions(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
-            @Parameter(description = "Sort by field") @RequestParam(defaultValue = "createdAt") String sortBy,
+            @Parameter(description = "Sort by field, or \"active\" for most recent activity") @RequestParam(defaultValue = "createdAt") String sortBy,
             @Parameter(description = "Sort direction") @RequestParam(defaultValue = "desc") String sortDir) {
 
+        if ("active".equalsIgnoreCase(sortBy)) {
+            return ResponseEntity.ok(questionService.getActiveQuestions(PageRequest.of(page, size)));
+        }
+
         Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
@@ -63,8 +105,20 @@ public class QuestionController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/feed")
+    @Operation(summary = "Get question feed (cursor)",
+            description = "Retrieve active questions for infinite scroll, one cursor page at a time, without a total count")
+    public ResponseEntity<CursorPageResponse<QuestionResponse>> getQuestionFeed(
+            @Parameter(description = "Sort key: newest, active, answers or views") @RequestParam(defaultValue = "newest") String sort,
+            @Parameter(description = "Cursor from the previous page's nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+
+        CursorPageResponse<QuestionResponse> response = questionService.getQuestionFeed(sort, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/search")
-    @Operation(summary = "Search questions", description = "Search questions by keyword in title or description")
+    @Operation(summary = "Search questions", description = "Full-text search over titles, descriptions and tags, ranked by relevance")
     public ResponseEntity<Page<QuestionResponse>> searchQuestions(
             @Parameter(description = "Search keyword") @RequestParam String q,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
@@ -75,15 +129,36 @@ public class QuestionController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/typeahead")
+    @Operation(summary = "Suggest questions", description = "Suggest questions whose title has a word starting with the typed prefix, ranked by views and score")
+    public ResponseEntity<List<QuestionSuggestionResponse>> suggestQuestions(
+            @Parameter(description = "Text typed so far") @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions, capped at 10") @RequestParam(defaultValue = "8") int limit) {
+
+        // Served from memory without a transaction; this runs on every keystroke
+        return ResponseEntity.ok(questionTypeaheadIndex.suggest(q, limit));
+    }
+
     @GetMapping("/tagged")
-    @Operation(summary = "Get questions by tags", description = "Retrieve questions filtered by specific tags")
-    public ResponseEntity<Page<QuestionResponse>> getQuestionsByTags(
+    @Operation(summary = "Get questions by tags", description = "Retrieve the newest questions carrying any of the given tags, one cursor page at a time")
+    public ResponseEntity<CursorPageResponse<QuestionResponse>> getQuestionsByTags(
             @Parameter(description = "Tag names") @RequestParam List<String> tags,
-            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Cursor from the previous page's nextCursor") @RequestParam(required = false) String cursor,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<QuestionResponse> response = questionService.getQuestionsByTags(tags, pageable);
+        CursorPageResponse<QuestionResponse> response = questionService.getQuestionsByTags(tags, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/tagged/filter")
+    @Operation(summary = "Filter questions by tag expression",
+            description = "Retrieve the newest questions matching a tag expression such as \"java AND (spring OR hibernate) AND NOT kotlin\", one cursor page at a time")
+    public ResponseEntity<CursorPageResponse<QuestionResponse>> filterQuestionsByTags(
+            @Parameter(description = "Tag expression using AND, OR, NOT and parentheses") @RequestParam String q,
+            @Parameter(description = "Cursor from the previous page's nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+
+        CursorPageResponse<QuestionResponse> response = questionService.filterQuestionsByTags(q, cursor, size);
         return ResponseEntity.ok(response);
     }
 
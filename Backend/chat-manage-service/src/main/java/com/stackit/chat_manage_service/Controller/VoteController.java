@@ -1,7 +1,10 @@
 package com.stackit.chat_manage_service.Controller;
 
 import com.stackit.chat_manage_service.Entity.enums.VoteType;
+import com.stackit.chat_manage_service.Payload.Request.BatchVoteRequest;
 import com.stackit.chat_manage_service.Payload.Request.VoteRequest;
+import com.stackit.chat_manage_service.Payload.Response.BatchVoteItemResponse;
+import com.stackit.chat_manage_service.Service.VoteRateLimiter;
 import com.stackit.chat_manage_service.Service.VoteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,7 +16,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/votes")
@@ -23,6 +29,7 @@ import java.util.Map;
 public class VoteController {
 
     private final VoteService voteService;
+    private final VoteRateLimiter voteRateLimiter;
 
     @PostMapping("/answers/{answerId}")
     @Operation(summary = "Vote on answer", description = "Upvote or downvote an answer")
@@ -31,6 +38,9 @@ public class VoteController {
             @Valid @RequestBody VoteRequest request) {
 
         log.info("Processing vote on answer: {} by user: {}", answerId, request.getUserId());
+
+        // Throttle before the service opens a transaction and touches the database
+        voteRateLimiter.check(request.getUserId(), answerId);
         voteService.voteOnAnswer(answerId, request);
 
         // Return updated vote statistics
@@ -44,6 +54,42 @@ public class VoteController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/answers/batch")
+    @Operation(summary = "Vote on answers in batch",
+            description = "Apply a queue of vote clicks from one user in a single transaction")
+    public ResponseEntity<Map<String, Object>> voteOnAnswers(@Valid @RequestBody BatchVoteRequest request) {
+
+        log.info("Processing batch of {} votes by user: {}", request.getVotes().size(), request.getUserId());
+
+        voteRateLimiter.check(request.getUserId(), request.getVotes().stream()
+                .map(BatchVoteRequest.VoteIntent::getAnswerId)
+                .toList());
+        List<BatchVoteItemResponse> results = voteService.voteOnAnswers(request);
+
+        // Return updated vote statistics once per affected answer
+        Set<Long> answerIds = results.stream()
+                .filter(BatchVoteItemResponse::getApplied)
+                .map(BatchVoteItemResponse::getAnswerId)
+                .collect(Collectors.toSet());
+
+        Map<Long, Map<String, Object>> answers = new HashMap<>();
+        voteService.getVoteCounts(answerIds).forEach((answerId, counts) -> {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("score", counts.score());
+            stats.put("upvotes", counts.upvotes());
+            stats.put("downvotes", counts.downvotes());
+            answers.put(answerId, stats);
+        });
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Batch vote processed successfully");
+        response.put("results", results);
+        response.put("answers", answers);
+
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/answers/{answerId}")
     @Operation(summary = "Remove vote", description = "Remove user's vote from an answer")
     public ResponseEntity<Map<String, Object>> removeVote(
@@ -51,6 +97,8 @@ public class VoteController {
             @Parameter(description = "User ID") @RequestParam Long userId) {
 
         log.info("Removing vote on answer: {} by user: {}", answerId, userId);
+
+        voteRateLimiter.check(userId, answerId);
         voteService.removeVote(answerId, userId);
 
         // Return updated vote statistics
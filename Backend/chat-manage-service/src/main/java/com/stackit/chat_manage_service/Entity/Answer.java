@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,7 +16,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "answers")
+@Table(name = "answers", indexes = {
+        // Ranking key for a question's answers: accepted first, then score, then oldest
+        @Index(name = "idx_answers_ranking",
+                columnList = "question_id, is_active, is_accepted DESC, score DESC, created_at ASC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,8 +32,16 @@ public class Answer {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String content;
+    // Loaded only by detail views; listings must not touch it
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @JoinColumn(name = "body_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private RichTextBody body;
+
+    // Plain-text preview of the body, generated on write for list views
+    @Column(length = 500)
+    private String excerpt;
 
     @Builder.Default
     @Column(name = "is_accepted", nullable = false)
@@ -60,13 +74,17 @@ public class Answer {
     @OneToMany(mappedBy = "answer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Vote> votes;
 
-    // Derived fields
-    @Transient
-    private Integer score;
+    // Denormalized vote counters, maintained by VoteService and reconciled from the votes table.
+    // score doubles as the stored ranking key used by idx_answers_ranking.
+    @Builder.Default
+    @Column(name = "upvote_count", nullable = false)
+    private Integer upvoteCount = 0;
 
-    @Transient
-    private Integer upvoteCount;
+    @Builder.Default
+    @Column(name = "downvote_count", nullable = false)
+    private Integer downvoteCount = 0;
 
-    @Transient
-    private Integer downvoteCount;
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer score = 0;
 }
\ No newline at end of file
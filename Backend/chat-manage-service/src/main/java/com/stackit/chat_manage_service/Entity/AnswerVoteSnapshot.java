@@ -0,0 +1,41 @@
+package com.stackit.chat_manage_service.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-answer vote totals folded from compacted {@link VoteEvent} rows.
+ * Replaying the ledger starts from these snapshots and applies only newer events.
+ */
+@Entity
+@Table(name = "answer_vote_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnswerVoteSnapshot {
+
+    @Id
+    @Column(name = "answer_id")
+    private Long answerId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "upvote_count", nullable = false)
+    private Integer upvoteCount;
+
+    @Column(name = "downvote_count", nullable = false)
+    private Integer downvoteCount;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -12,7 +12,12 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "questions")
+@Table(name = "questions", indexes = {
+        @Index(name = "idx_questions_last_activity", columnList = "is_active, last_activity_at"),
+        @Index(name = "idx_questions_created", columnList = "is_active, created_at"),
+        @Index(name = "idx_questions_answer_count", columnList = "is_active, answer_count"),
+        @Index(name = "idx_questions_view_count", columnList = "is_active, view_count")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,13 +32,36 @@ public class Question {
     @Column(nullable = false, length = 200)
     private String title;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String description;
+    // Loaded only by detail views; listings must not touch it
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @JoinColumn(name = "body_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private RichTextBody body;
 
+    // Plain-text preview of the body, generated on write for list views
+    @Column(length = 500)
+    private String excerpt;
+
+    // Flushed in batches by ViewCountBuffer
     @Builder.Default
-    @Column(name = "view_count", nullable = false)
+    @Column(name = "view_count", nullable = false, updatable = false)
     private Integer viewCount = 0;
 
+    // Denormalized from answers; changed only by bulk updates, so saving a stale entity
+    // can never overwrite them
+    @Builder.Default
+    @Column(name = "answer_count", nullable = false, updatable = false)
+    private Integer answerCount = 0;
+
+    // Sum of the active answers' scores, moved by every vote counter flush
+    @Builder.Default
+    @Column(name = "answer_score", nullable = false, updatable = false)
+    private Integer answerScore = 0;
+
+    @Column(name = "last_activity_at", updatable = false)
+    private LocalDateTime lastActivityAt;
+
     @Builder.Default
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
@@ -48,6 +76,12 @@ public class Question {
     @Column(name = "accepted_answer_id")
     private Long acceptedAnswerId;
 
+    // Optimistic lock; bulk updates that change the accepted answer bump it explicitly
+    @Version
+    @Builder.Default
+    @Column(nullable = false)
+    private Long version = 0L;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -75,9 +109,6 @@ public class Question {
     private Set<Tag> tags;
 
     // Derived fields
-    @Transient
-    private Integer answerCount;
-
     @Transient
     private Integer score;
 
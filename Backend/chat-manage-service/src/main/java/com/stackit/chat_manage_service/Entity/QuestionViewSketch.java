@@ -0,0 +1,32 @@
+package com.stackit.chat_manage_service.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Serialized HyperLogLog sketch of the distinct viewers of a question. Written only by
+ * ViewSketchBuffer, which merges new observations into the stored sketch.
+ */
+@Entity
+@Table(name = "question_view_sketches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuestionViewSketch {
+
+    @Id
+    @Column(name = "question_id")
+    private Long questionId;
+
+    @Column(nullable = false, columnDefinition = "VARBINARY(1536)")
+    private byte[] registers;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.stackit.chat_manage_service.Entity;
+
+import com.stackit.chat_manage_service.Entity.converters.CompressedTextConverter;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+/**
+ * Rich-text body of a question or answer, kept out of the owning row so that list views
+ * never read it. Owners reference it through a lazy one-to-one; large bodies are stored
+ * compressed by {@link CompressedTextConverter}.
+ */
+@Entity
+@Table(name = "rich_text_bodies")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RichTextBody {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private String content;
+
+    public static RichTextBody of(String content) {
+        return RichTextBody.builder().content(content).build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.stackit.chat_manage_service.Entity;
+
+import com.stackit.chat_manage_service.Entity.enums.VoteAction;
+import com.stackit.chat_manage_service.Entity.enums.VoteType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only ledger entry for a vote change. Rows are never updated; old rows are
+ * folded into {@link AnswerVoteSnapshot} and deleted by compaction.
+ * <p>
+ * voteType is the type that was cast, flipped to, or retracted.
+ */
+@Entity
+@Table(name = "vote_events", indexes = {
+        @Index(name = "idx_vote_events_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class VoteEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "answer_id", nullable = false)
+    private Long answerId;
+
+    @Column(name = "voter_id", nullable = false)
+    private Long voterId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private VoteAction action;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "vote_type", nullable = false, length = 8)
+    private VoteType voteType;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
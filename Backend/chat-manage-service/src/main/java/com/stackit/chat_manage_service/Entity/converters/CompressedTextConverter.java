@@ -0,0 +1,106 @@
+package com.stackit.chat_manage_service.Entity.converters;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores text as bytes, Deflate-compressed once it is larger than
+ * {@link #COMPRESSION_THRESHOLD_BYTES}. The first byte records the format so that short
+ * bodies stay uncompressed and both forms can be read back.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    public static final int COMPRESSION_THRESHOLD_BYTES = 1024;
+
+    private static final byte PLAIN = 'P';
+    private static final byte DEFLATE = 'D';
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length > COMPRESSION_THRESHOLD_BYTES) {
+            byte[] compressed = deflate(raw);
+            // Keep the plain form when compression does not actually help
+            if (compressed.length < raw.length) {
+                return withFormat(DEFLATE, compressed, compressed.length);
+            }
+        }
+        return withFormat(PLAIN, raw, raw.length);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length == 0) {
+            return "";
+        }
+
+        byte[] payload = Arrays.copyOfRange(stored, 1, stored.length);
+        return switch (stored[0]) {
+            case PLAIN -> new String(payload, StandardCharsets.UTF_8);
+            case DEFLATE -> new String(inflate(payload), StandardCharsets.UTF_8);
+            default -> throw new IllegalStateException("Unknown rich text storage format: " + stored[0]);
+        };
+    }
+
+    private static byte[] withFormat(byte format, byte[] payload, int length) {
+        byte[] stored = new byte[length + 1];
+        stored[0] = format;
+        System.arraycopy(payload, 0, stored, 1, length);
+        return stored;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(buffer);
+                out.write(buffer, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed rich text body");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed rich text body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
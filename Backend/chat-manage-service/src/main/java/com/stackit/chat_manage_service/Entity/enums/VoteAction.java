@@ -0,0 +1,10 @@
+package com.stackit.chat_manage_service.Entity.enums;
+
+/**
+ * The state transition a toggle vote request produced.
+ */
+public enum VoteAction {
+    CAST,
+    FLIP,
+    RETRACT
+}
@@ -0,0 +1,12 @@
+package com.stackit.chat_manage_service.Event;
+
+/**
+ * Published inside the accepting transaction; listeners run only after it commits.
+ * Carries everything the broadcast and notification need so they do not re-fetch.
+ */
+public record AnswerAcceptedEvent(Long questionId,
+                                  String questionTitle,
+                                  Long answerId,
+                                  Long answerAuthorId,
+                                  Long acceptedByUserId) {
+}
@@ -0,0 +1,19 @@
+package com.stackit.chat_manage_service.Event;
+
+import java.util.Set;
+
+/**
+ * Published inside the transaction that creates, edits or deletes a question; listeners
+ * run only after it commits. Carries the searchable content so that in-memory indexes can
+ * update without re-reading the question.
+ */
+public record QuestionChangedEvent(Long questionId,
+                                   String title,
+                                   String content,
+                                   Set<String> tagNames,
+                                   boolean active) {
+
+    public static QuestionChangedEvent removed(Long questionId) {
+        return new QuestionChangedEvent(questionId, null, null, Set.of(), false);
+    }
+}
@@ -0,0 +1,18 @@
+package com.stackit.chat_manage_service.Exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a caller exceeds a rate limit. Rejections are expected to be frequent under
+ * abuse, so no stack trace is captured.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterMillis;
+
+    public RateLimitExceededException(String message, long retryAfterMillis) {
+        super(message, null, false, false);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+}
@@ -0,0 +1,43 @@
+package com.stackit.chat_manage_service.Payload.Request;
+
+import com.stackit.chat_manage_service.Entity.enums.VoteType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchVoteRequest {
+
+    /**
+     * Largest accepted batch; the per-user vote burst must allow a full batch.
+     */
+    public static final int MAX_VOTES = 100;
+
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    @NotEmpty(message = "At least one vote is required")
+    @Size(max = MAX_VOTES, message = "A batch can contain at most 100 votes")
+    private List<@Valid VoteIntent> votes;
+
+    /**
+     * One queued click on a vote button, in the order the user made it.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VoteIntent {
+
+        @NotNull(message = "Answer ID is required")
+        private Long answerId;
+
+        @NotNull(message = "Vote type is required")
+        private VoteType voteType;
+    }
+}
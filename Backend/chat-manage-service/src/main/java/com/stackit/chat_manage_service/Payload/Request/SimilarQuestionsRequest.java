@@ -0,0 +1,19 @@
+package com.stackit.chat_manage_service.Payload.Request;
+
+import jakarta.validation.constraints.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarQuestionsRequest {
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 200, message = "Title must be at most 200 characters")
+    private String title;
+
+    @Size(max = 50000, message = "Description must be at most 50000 characters")
+    private String description;
+}
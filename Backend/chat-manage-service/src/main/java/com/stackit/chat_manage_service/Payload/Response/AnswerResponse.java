@@ -15,6 +15,9 @@ public class AnswerResponse {
 
     private Long id;
     private String content;
+
+    // Plain-text preview; list views return this instead of the full body
+    private String excerpt;
     private Boolean isAccepted;
     private Boolean isActive;
     private LocalDateTime createdAt;
@@ -0,0 +1,20 @@
+package com.stackit.chat_manage_service.Payload.Response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchVoteItemResponse {
+
+    private Integer index;
+    private Long answerId;
+    private String voteType;
+    private Boolean applied;
+    private String action;
+    private String message;
+}
@@ -0,0 +1,22 @@
+package com.stackit.chat_manage_service.Payload.Response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private Integer size;
+
+    // Opaque position of the last item; pass back as ?cursor= to fetch the next page
+    private String nextCursor;
+    private Boolean hasNext;
+}
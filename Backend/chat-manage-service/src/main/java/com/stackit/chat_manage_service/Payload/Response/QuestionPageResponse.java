@@ -0,0 +1,20 @@
+package com.stackit.chat_manage_service.Payload.Response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuestionPageResponse {
+
+    // Full question with body and tags
+    private QuestionResponse question;
+
+    // First page of answers in ranking order, with the viewer's votes; nextCursor
+    // continues at GET /answers/question/{questionId}/page
+    private CursorPageResponse<AnswerResponse> answers;
+}
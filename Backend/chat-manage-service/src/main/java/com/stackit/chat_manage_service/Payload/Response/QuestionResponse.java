@@ -18,13 +18,20 @@ public class QuestionResponse {
     private Long id;
     private String title;
     private String description;
+
+    // Plain-text preview; list views return this instead of the full body
+    private String excerpt;
     private Integer viewCount;
+
+    // Estimated distinct viewers; detail view only
+    private Long uniqueViewCount;
     private Boolean isActive;
     private Boolean isClosed;
     private String closeReason;
     private Long acceptedAnswerId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private LocalDateTime lastActivityAt;
 
     private UserSummaryResponse user;
     private Set<TagResponse> tags;
@@ -36,4 +43,7 @@ public class QuestionResponse {
 
     // Optional fields for detailed view
     private List<AnswerResponse> answers;
+
+    // Possible duplicates found when the question was created
+    private List<SimilarQuestionResponse> similarQuestions;
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.stackit.chat_manage_service.Payload.Response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuestionSuggestionResponse {
+
+    private Long id;
+    private String title;
+}
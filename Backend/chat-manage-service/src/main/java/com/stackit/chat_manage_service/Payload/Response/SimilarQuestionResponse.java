@@ -0,0 +1,19 @@
+package com.stackit.chat_manage_service.Payload.Response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimilarQuestionResponse {
+
+    private Long id;
+    private String title;
+
+    // Estimated overlap of the two questions' word pairs, from 0 to 1
+    private Double similarity;
+}
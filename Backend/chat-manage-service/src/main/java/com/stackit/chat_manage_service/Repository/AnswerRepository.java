@@ -3,6 +3,10 @@ package com.stackit.chat_manage_service.Repository;
 import com.stackit.chat_manage_service.Auth.Entities.User;
 import com.stackit.chat_manage_service.Entity.Answer;
 import com.stackit.chat_manage_service.Entity.Question;
+import com.stackit.chat_manage_service.Repository.Projection.AnswerAcceptanceTarget;
+import com.stackit.chat_manage_service.Repository.Projection.AnswerListingRow;
+import com.stackit.chat_manage_service.Repository.Projection.AnswerVoteTarget;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,6 +16,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,36 +31,97 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
 
     Optional<Answer> findByIdAndIsActiveTrue(Long id);
 
+    boolean existsByIdAndIsActiveTrue(Long id);
+
+    @Query("SELECT a.id AS answerId, a.user.id AS authorId, a.upvoteCount AS upvoteCount, a.downvoteCount AS downvoteCount " +
+            "FROM Answer a WHERE a.id = :answerId AND a.isActive = true")
+    Optional<AnswerVoteTarget> findVoteTargetById(@Param("answerId") Long answerId);
+
+    @Query("SELECT a.id AS answerId, a.user.id AS authorId, a.upvoteCount AS upvoteCount, a.downvoteCount AS downvoteCount " +
+            "FROM Answer a WHERE a.id IN :answerIds AND a.isActive = true")
+    List<AnswerVoteTarget> findVoteTargetsByIds(@Param("answerIds") Collection<Long> answerIds);
+
+    // Ranking order matches idx_answers_ranking, so MySQL reads it as an index range scan
     @Query("SELECT a FROM Answer a WHERE a.question = :question AND a.isActive = true " +
-            "ORDER BY a.isAccepted DESC, " +
-            "(SELECT COUNT(v) FROM Vote v WHERE v.answer = a AND v.voteType = 'UPVOTE') , " +
-            "(SELECT COUNT(v) FROM Vote v WHERE v.answer = a AND v.voteType = 'DOWNVOTE') DESC, " +
-            "a.createdAt ASC")
+            "ORDER BY a.isAccepted DESC, a.score DESC, a.createdAt ASC")
     List<Answer> findByQuestionOrderedByScoreAndAcceptance(@Param("question") Question question);
 
+    String ANSWER_LISTING_SELECT = "SELECT a.id AS id, b.content AS content, a.excerpt AS excerpt, a.isAccepted AS isAccepted, a.isActive AS isActive, " +
+            "a.createdAt AS createdAt, a.updatedAt AS updatedAt, a.editedAt AS editedAt, " +
+            "a.upvoteCount AS upvoteCount, a.downvoteCount AS downvoteCount, a.score AS score, " +
+            "u.id AS authorId, u.username AS authorUsername, u.displayName AS authorDisplayName, " +
+            "u.role AS authorRole, u.avatarUrl AS authorAvatarUrl, " +
+            "u.reputationScore AS authorReputationScore, u.createdAt AS authorCreatedAt " +
+            "FROM Answer a JOIN a.user u LEFT JOIN a.body b ";
+
+    String ANSWER_RANKING_ORDER = "ORDER BY a.isAccepted DESC, a.score DESC, a.createdAt ASC, a.id ASC";
+
+    @Query(ANSWER_LISTING_SELECT +
+            "WHERE a.question.id = :questionId AND a.isActive = true " +
+            ANSWER_RANKING_ORDER)
+    List<AnswerListingRow> findListingByQuestionId(@Param("questionId") Long questionId);
+
+    @Query(ANSWER_LISTING_SELECT +
+            "WHERE a.question.id = :questionId AND a.isActive = true " +
+            ANSWER_RANKING_ORDER)
+    List<AnswerListingRow> findListingByQuestionId(@Param("questionId") Long questionId, Limit limit);
+
+    /**
+     * Keyset page of a question's answers: the rows ranked after the given
+     * (isAccepted, score, createdAt, id) position. Each page is a bounded range scan of
+     * idx_answers_ranking (InnoDB appends the id to secondary indexes), however deep it is.
+     */
+    @Query(ANSWER_LISTING_SELECT +
+            "WHERE a.question.id = :questionId AND a.isActive = true AND (" +
+            "(:isAccepted = true AND a.isAccepted = false) OR " +
+            "(a.isAccepted = :isAccepted AND (a.score < :score OR " +
+            "(a.score = :score AND (a.createdAt > :createdAt OR " +
+            "(a.createdAt = :createdAt AND a.id > :id)))))) " +
+            ANSWER_RANKING_ORDER)
+    List<AnswerListingRow> findListingByQuestionIdAfter(@Param("questionId") Long questionId,
+                                                        @Param("isAccepted") Boolean isAccepted,
+                                                        @Param("score") Integer score,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id,
+                                                        Limit limit);
+
     @Query("SELECT a FROM Answer a WHERE a.isActive = true AND a.isAccepted = true")
     Page<Answer> findAcceptedAnswers(Pageable pageable);
 
-    @Query("SELECT a FROM Answer a WHERE a.isActive = true AND " +
-            "LOWER(a.content) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Page<Answer> findByKeyword(@Param("keyword") String keyword, Pageable pageable);
-
     @Query("SELECT a FROM Answer a WHERE a.isActive = true AND a.createdAt >= :since")
     Page<Answer> findRecentAnswers(@Param("since") LocalDateTime since, Pageable pageable);
 
-    @Query("SELECT a FROM Answer a LEFT JOIN a.votes v WHERE a.isActive = true " +
-            "GROUP BY a.id ORDER BY " +
-            "SUM(CASE WHEN v.voteType = 'UPVOTE' THEN 1 ELSE 0 END) - " +
-            "SUM(CASE WHEN v.voteType = 'DOWNVOTE' THEN 1 ELSE 0 END) DESC")
+    @Query("SELECT a FROM Answer a WHERE a.isActive = true ORDER BY a.score DESC")
     Page<Answer> findMostUpvotedAnswers(Pageable pageable);
 
     @Modifying
-    @Query("UPDATE Answer a SET a.isAccepted = true WHERE a.id = :answerId")
-    void acceptAnswer(@Param("answerId") Long answerId);
-
+    @Query(value = "UPDATE answers a LEFT JOIN (" +
+            "SELECT v.answer_id, " +
+            "SUM(CASE WHEN v.vote_type = 'UPVOTE' THEN 1 ELSE 0 END) AS up, " +
+            "SUM(CASE WHEN v.vote_type = 'DOWNVOTE' THEN 1 ELSE 0 END) AS down " +
+            "FROM votes v GROUP BY v.answer_id) t ON t.answer_id = a.id " +
+            "SET a.upvote_count = COALESCE(t.up, 0), " +
+            "a.downvote_count = COALESCE(t.down, 0), " +
+            "a.score = COALESCE(t.up, 0) - COALESCE(t.down, 0) " +
+            "WHERE a.upvote_count <> COALESCE(t.up, 0) OR a.downvote_count <> COALESCE(t.down, 0) " +
+            "OR a.score <> COALESCE(t.up, 0) - COALESCE(t.down, 0)",
+            nativeQuery = true)
+    int reconcileVoteCounters();
+
+    @Query("SELECT a.id AS answerId, a.user.id AS answerAuthorId, q.id AS questionId, " +
+            "q.user.id AS questionOwnerId, q.title AS questionTitle, q.version AS questionVersion, " +
+            "q.acceptedAnswerId AS acceptedAnswerId " +
+            "FROM Answer a JOIN a.question q WHERE a.id = :answerId AND a.isActive = true")
+    Optional<AnswerAcceptanceTarget> findAcceptanceTargetById(@Param("answerId") Long answerId);
+
+    /**
+     * Makes the given answer the only accepted answer of its question in one statement.
+     * Only the previously accepted answer and the new one are touched.
+     */
     @Modifying
-    @Query("UPDATE Answer a SET a.isAccepted = false WHERE a.question = :question")
-    void unacceptAllAnswersForQuestion(@Param("question") Question question);
+    @Query("UPDATE Answer a SET a.isAccepted = CASE WHEN a.id = :answerId THEN true ELSE false END " +
+            "WHERE a.question.id = :questionId AND (a.isAccepted = true OR a.id = :answerId)")
+    int flipAcceptedAnswer(@Param("questionId") Long questionId, @Param("answerId") Long answerId);
 
     @Query("SELECT COUNT(a) FROM Answer a WHERE a.question = :question AND a.isActive = true")
     long countByQuestion(@Param("question") Question question);
@@ -0,0 +1,52 @@
+package com.stackit.chat_manage_service.Repository;
+
+import com.stackit.chat_manage_service.Entity.AnswerVoteSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnswerVoteSnapshotRepository extends JpaRepository<AnswerVoteSnapshot, Long> {
+
+    @Query("SELECT COALESCE(MAX(s.lastEventId), 0) FROM AnswerVoteSnapshot s")
+    long findWatermark();
+
+    /**
+     * Fold ledger events in (fromEventId, toEventId] into the per-answer snapshots.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO answer_vote_snapshots " +
+            "(answer_id, author_id, upvote_count, downvote_count, last_event_id, updated_at) " +
+            "SELECT e.answer_id, MAX(e.author_id), " +
+            "SUM(CASE WHEN e.vote_type = 'UPVOTE' THEN (CASE WHEN e.action = 'RETRACT' THEN -1 ELSE 1 END) " +
+            "WHEN e.action = 'FLIP' THEN -1 ELSE 0 END), " +
+            "SUM(CASE WHEN e.vote_type = 'DOWNVOTE' THEN (CASE WHEN e.action = 'RETRACT' THEN -1 ELSE 1 END) " +
+            "WHEN e.action = 'FLIP' THEN -1 ELSE 0 END), " +
+            ":toEventId, NOW(6) " +
+            "FROM vote_events e WHERE e.id > :fromEventId AND e.id <= :toEventId " +
+            "GROUP BY e.answer_id " +
+            "ON DUPLICATE KEY UPDATE " +
+            "upvote_count = upvote_count + VALUES(upvote_count), " +
+            "downvote_count = downvote_count + VALUES(downvote_count), " +
+            "last_event_id = VALUES(last_event_id), " +
+            "updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int foldEvents(@Param("fromEventId") long fromEventId, @Param("toEventId") long toEventId);
+
+    /**
+     * Bootstrap snapshots for votes cast before the ledger existed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO answer_vote_snapshots " +
+            "(answer_id, author_id, upvote_count, downvote_count, last_event_id, updated_at) " +
+            "SELECT v.answer_id, a.user_id, " +
+            "SUM(CASE WHEN v.vote_type = 'UPVOTE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN v.vote_type = 'DOWNVOTE' THEN 1 ELSE 0 END), " +
+            "0, NOW(6) " +
+            "FROM votes v JOIN answers a ON a.id = v.answer_id " +
+            "GROUP BY v.answer_id, a.user_id",
+            nativeQuery = true)
+    int seedFromVotes();
+}
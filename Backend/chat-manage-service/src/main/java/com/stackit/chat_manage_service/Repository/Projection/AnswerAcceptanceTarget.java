@@ -0,0 +1,21 @@
+package com.stackit.chat_manage_service.Repository.Projection;
+
+/**
+ * The answer and question columns needed to accept an answer, read in one statement.
+ */
+public interface AnswerAcceptanceTarget {
+
+    Long getAnswerId();
+
+    Long getAnswerAuthorId();
+
+    Long getQuestionId();
+
+    Long getQuestionOwnerId();
+
+    String getQuestionTitle();
+
+    Long getQuestionVersion();
+
+    Long getAcceptedAnswerId();
+}
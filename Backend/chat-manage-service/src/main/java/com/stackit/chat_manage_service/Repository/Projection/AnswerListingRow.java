@@ -0,0 +1,48 @@
+package com.stackit.chat_manage_service.Repository.Projection;
+
+import com.stackit.chat_manage_service.Entity.enums.UserRole;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of an answer listing: the answer, its author summary and its vote counters,
+ * read in a single statement without loading entities.
+ */
+public interface AnswerListingRow {
+
+    Long getId();
+
+    String getContent();
+
+    String getExcerpt();
+
+    Boolean getIsAccepted();
+
+    Boolean getIsActive();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    LocalDateTime getEditedAt();
+
+    Integer getUpvoteCount();
+
+    Integer getDownvoteCount();
+
+    Integer getScore();
+
+    Long getAuthorId();
+
+    String getAuthorUsername();
+
+    String getAuthorDisplayName();
+
+    UserRole getAuthorRole();
+
+    String getAuthorAvatarUrl();
+
+    Integer getAuthorReputationScore();
+
+    LocalDateTime getAuthorCreatedAt();
+}
@@ -0,0 +1,15 @@
+package com.stackit.chat_manage_service.Repository.Projection;
+
+/**
+ * The few answer columns the vote path needs, read without loading the entity.
+ */
+public interface AnswerVoteTarget {
+
+    Long getAnswerId();
+
+    Long getAuthorId();
+
+    Integer getUpvoteCount();
+
+    Integer getDownvoteCount();
+}
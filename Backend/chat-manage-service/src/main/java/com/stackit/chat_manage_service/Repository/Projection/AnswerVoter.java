@@ -0,0 +1,13 @@
+package com.stackit.chat_manage_service.Repository.Projection;
+
+import com.stackit.chat_manage_service.Entity.enums.VoteType;
+
+/**
+ * One user's vote on an answer, used to build the voted-by index.
+ */
+public interface AnswerVoter {
+
+    Long getUserId();
+
+    VoteType getVoteType();
+}
@@ -0,0 +1,13 @@
+package com.stackit.chat_manage_service.Repository.Projection;
+
+/**
+ * Searchable fields of a question, loaded when rebuilding in-memory indexes.
+ */
+public interface QuestionIndexRow {
+
+    Long getId();
+
+    String getTitle();
+
+    String getContent();
+}
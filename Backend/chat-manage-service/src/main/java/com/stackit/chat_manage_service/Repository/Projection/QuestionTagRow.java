@@ -0,0 +1,11 @@
+package com.stackit.chat_manage_service.Repository.Projection;
+
+/**
+ * One tag of a question, loaded when rebuilding in-memory indexes.
+ */
+public interface QuestionTagRow {
+
+    Long getQuestionId();
+
+    String getTagName();
+}
@@ -0,0 +1,16 @@
+package com.stackit.chat_manage_service.Repository.Projection;
+
+/**
+ * A question title with the signals typeahead suggestions are ranked by. The score is the
+ * denormalized sum of the scores of the question's active answers.
+ */
+public interface QuestionTypeaheadRow {
+
+    Long getId();
+
+    String getTitle();
+
+    Integer getViewCount();
+
+    Integer getScore();
+}
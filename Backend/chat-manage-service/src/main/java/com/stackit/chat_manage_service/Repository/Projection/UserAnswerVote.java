@@ -0,0 +1,13 @@
+package com.stackit.chat_manage_service.Repository.Projection;
+
+import com.stackit.chat_manage_service.Entity.enums.VoteType;
+
+/**
+ * A viewer's vote on one answer, used to personalise answer listings.
+ */
+public interface UserAnswerVote {
+
+    Long getAnswerId();
+
+    VoteType getVoteType();
+}
@@ -0,0 +1,64 @@
+package com.stackit.chat_manage_service.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch operations on questions that do not fit Spring Data's per-entity model.
+ */
+@Repository
+@RequiredArgsConstructor
+public class QuestionJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Views counted for one question since the previous flush.
+     */
+    public record ViewCountDelta(Long questionId, long views) {
+    }
+
+    public void batchIncrementViewCounts(List<ViewCountDelta> deltas, int batchSize) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE questions SET view_count = view_count + ? WHERE id = ?",
+                deltas,
+                batchSize,
+                (ps, delta) -> {
+                    ps.setLong(1, delta.views());
+                    ps.setLong(2, delta.questionId());
+                });
+    }
+
+    /**
+     * A merged viewer sketch to store for one question.
+     */
+    public record ViewSketchRow(Long questionId, byte[] registers) {
+    }
+
+    public void batchUpsertViewSketches(List<ViewSketchRow> rows, int batchSize) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO question_view_sketches (question_id, registers, updated_at) VALUES (?, ?, ?) " +
+                        "ON DUPLICATE KEY UPDATE registers = VALUES(registers), updated_at = VALUES(updated_at)",
+                rows,
+                batchSize,
+                (ps, row) -> {
+                    ps.setLong(1, row.questionId());
+                    ps.setBytes(2, row.registers());
+                    ps.setTimestamp(3, now);
+                });
+    }
+}
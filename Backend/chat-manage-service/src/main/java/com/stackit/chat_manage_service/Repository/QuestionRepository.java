@@ -2,7 +2,10 @@ package com.stackit.chat_manage_service.Repository;
 
 import com.stackit.chat_manage_service.Auth.Entities.User;
 import com.stackit.chat_manage_service.Entity.Question;
-import com.stackit.chat_manage_service.Entity.Tag;
+import com.stackit.chat_manage_service.Repository.Projection.QuestionIndexRow;
+import com.stackit.chat_manage_service.Repository.Projection.QuestionTagRow;
+import com.stackit.chat_manage_service.Repository.Projection.QuestionTypeaheadRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,13 +15,97 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, Long> {
 
-    @Query("SELECT DISTINCT q FROM Question q LEFT JOIN FETCH q.tags LEFT JOIN FETCH q.user WHERE q.isActive = true ORDER BY q.createdAt DESC")
-    Page<Question> findByIsActiveTrueOrderByCreatedAtDesc(Pageable pageable);
+    // Paginated feeds run in two phases: one of the id queries below pages over question
+    // ids with LIMIT in SQL (ordered by the Pageable's sort), then findFeedItemsByIds loads
+    // just those questions with their user and tags. Fetch joins never meet a LIMIT, so
+    // Hibernate never falls back to paginating in memory.
+
+    @Query("SELECT q.id FROM Question q WHERE q.isActive = true")
+    Page<Long> findActiveQuestionIds(Pageable pageable);
+
+    @Query(value = "SELECT q.id FROM Question q WHERE q.isActive = true ORDER BY q.lastActivityAt DESC, q.id DESC",
+            countQuery = "SELECT COUNT(q) FROM Question q WHERE q.isActive = true")
+    Page<Long> findActiveQuestionIdsByLastActivity(Pageable pageable);
+
+    @Query("SELECT q.id FROM Question q WHERE q.isActive = true AND q.acceptedAnswerId IS NULL")
+    Page<Long> findUnansweredQuestionIds(Pageable pageable);
+
+    @Query("SELECT q.id FROM Question q WHERE q.isActive = true AND q.createdAt >= :since")
+    Page<Long> findRecentQuestionIds(@Param("since") LocalDateTime since, Pageable pageable);
+
+    // Keyset feed: each sort key pages over (key, id) with no OFFSET and no count query.
+    // The *After variants return the ids ranked after the last row of the previous page.
+
+    @Query("SELECT q.id FROM Question q WHERE q.isActive = true ORDER BY q.createdAt DESC, q.id DESC")
+    List<Long> findFeedIdsByNewest(Limit limit);
+
+    @Query("SELECT q.id FROM Question q WHERE q.isActive = true AND " +
+            "(q.createdAt < :createdAt OR (q.createdAt = :createdAt AND q.id < :id)) " +
+            "ORDER BY q.createdAt DESC, q.id DESC")
+    List<Long> findFeedIdsByNewestAfter(@Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id, Limit limit);
+
+    @Query("SELECT q.id FROM Question q WHERE q.isActive = true ORDER BY q.lastActivityAt DESC, q.id DESC")
+    List<Long> findFeedIdsByActivity(Limit limit);
+
+    @Query("SELECT q.id FROM Question q WHERE q.isActive = true AND " +
+            "(q.lastActivityAt < :lastActivityAt OR (q.lastActivityAt = :lastActivityAt AND q.id < :id)) " +
+            "ORDER BY q.lastActivityAt DESC, q.id DESC")
+    List<Long> findFeedIdsByActivityAfter(@Param("lastActivityAt") LocalDateTime lastActivityAt,
+                                          @Param("id") Long id, Limit limit);
+
+    @Query("SELECT q.id FROM Question q WHERE q.isActive = true ORDER BY q.answerCount DESC, q.id DESC")
+    List<Long> findFeedIdsByAnswers(Limit limit);
+
+    @Query("SELECT q.id FROM Question q WHERE q.isActive = true AND " +
+            "(q.answerCount < :answerCount OR (q.answerCount = :answerCount AND q.id < :id)) " +
+            "ORDER BY q.answerCount DESC, q.id DESC")
+    List<Long> findFeedIdsByAnswersAfter(@Param("answerCount") Integer answerCount,
+                                         @Param("id") Long id, Limit limit);
+
+    @Query("SELECT q.id FROM Question q WHERE q.isActive = true ORDER BY q.viewCount DESC, q.id DESC")
+    List<Long> findFeedIdsByViews(Limit limit);
+
+    @Query("SELECT q.id FROM Question q WHERE q.isActive = true AND " +
+            "(q.viewCount < :viewCount OR (q.viewCount = :viewCount AND q.id < :id)) " +
+            "ORDER BY q.viewCount DESC, q.id DESC")
+    List<Long> findFeedIdsByViewsAfter(@Param("viewCount") Integer viewCount,
+                                       @Param("id") Long id, Limit limit);
+
+    // Chunked loads for rebuilding in-memory indexes; ranges are [fromId, toId)
+
+    @Query("SELECT COALESCE(MAX(q.id), 0) FROM Question q")
+    long findMaxId();
+
+    @Query("SELECT q.id FROM Question q WHERE q.isActive = true AND q.id >= :fromId AND q.id < :toId")
+    List<Long> findActiveIdsByIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("SELECT q.id AS id, q.title AS title, b.content AS content FROM Question q LEFT JOIN q.body b " +
+            "WHERE q.isActive = true AND q.id >= :fromId AND q.id < :toId")
+    List<QuestionIndexRow> findIndexRowsByIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("SELECT q.id AS questionId, t.name AS tagName FROM Question q JOIN q.tags t " +
+            "WHERE q.isActive = true AND q.id >= :fromId AND q.id < :toId")
+    List<QuestionTagRow> findTagRowsByIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("SELECT q.id AS id, q.title AS title, q.viewCount AS viewCount, q.answerScore AS score " +
+            "FROM Question q WHERE q.isActive = true AND q.id >= :fromId AND q.id < :toId")
+    List<QuestionTypeaheadRow> findTypeaheadRowsByIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    // Everything the question page renders about the question itself, in one statement
+    @Query("SELECT DISTINCT q FROM Question q JOIN FETCH q.user LEFT JOIN FETCH q.body LEFT JOIN FETCH q.tags " +
+            "WHERE q.id = :id AND q.isActive = true")
+    Optional<Question> findPageById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT q FROM Question q LEFT JOIN FETCH q.user LEFT JOIN FETCH q.tags WHERE q.id IN :ids")
+    List<Question> findFeedItemsByIds(@Param("ids") Collection<Long> ids);
 
     Page<Question> findByIsActiveTrueAndIsClosedFalseOrderByCreatedAtDesc(Pageable pageable);
 
@@ -26,38 +113,54 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
 
     Page<Question> findByTitleContainingIgnoreCaseAndIsActiveTrue(String title, Pageable pageable);
 
-    @Query("SELECT DISTINCT q FROM Question q LEFT JOIN FETCH q.tags LEFT JOIN FETCH q.user WHERE q.isActive = true AND " +
-            "(LOWER(q.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(q.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) ORDER BY q.createdAt DESC")
-    Page<Question> findByKeyword(@Param("keyword") String keyword, Pageable pageable);
-
-    @Query("SELECT q FROM Question q JOIN q.tags t WHERE t IN :tags AND q.isActive = true")
-    Page<Question> findByTags(@Param("tags") List<Tag> tags, Pageable pageable);
-
     @Query("SELECT q FROM Question q WHERE q.isActive = true AND q.acceptedAnswerId IS NOT NULL")
     Page<Question> findAnsweredQuestions(Pageable pageable);
 
-    @Query("SELECT q FROM Question q WHERE q.isActive = true AND q.acceptedAnswerId IS NULL")
-    Page<Question> findUnansweredQuestions(Pageable pageable);
-
     @Query("SELECT q FROM Question q WHERE q.isActive = true ORDER BY q.viewCount DESC")
     Page<Question> findMostViewedQuestions(Pageable pageable);
 
-    @Query("SELECT q FROM Question q LEFT JOIN q.answers a WHERE q.isActive = true " +
-            "GROUP BY q.id ORDER BY COUNT(a) DESC")
+    @Query("SELECT q FROM Question q WHERE q.isActive = true ORDER BY q.answerCount DESC")
     Page<Question> findMostAnsweredQuestions(Pageable pageable);
 
-    @Query("SELECT q FROM Question q WHERE q.isActive = true AND q.createdAt >= :since")
-    Page<Question> findRecentQuestions(@Param("since") LocalDateTime since, Pageable pageable);
+    @Modifying
+    @Query("UPDATE Question q SET q.answerCount = q.answerCount + 1, q.lastActivityAt = :at WHERE q.id = :questionId")
+    void recordAnswerAdded(@Param("questionId") Long questionId, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE Question q SET q.answerCount = q.answerCount - 1, " +
+            "q.answerScore = q.answerScore - (SELECT a.score FROM Answer a WHERE a.id = :answerId) " +
+            "WHERE q.id = :questionId AND q.answerCount > 0")
+    void recordAnswerRemoved(@Param("questionId") Long questionId, @Param("answerId") Long answerId);
 
+    // Recomputes answer_score from the active answers wherever it has drifted
     @Modifying
-    @Query("UPDATE Question q SET q.viewCount = q.viewCount + 1 WHERE q.id = :questionId")
-    void incrementViewCount(@Param("questionId") Long questionId);
+    @Query(value = "UPDATE questions q LEFT JOIN (" +
+            "SELECT question_id, SUM(score) AS total FROM answers WHERE is_active = true GROUP BY question_id" +
+            ") a ON a.question_id = q.id " +
+            "SET q.answer_score = COALESCE(a.total, 0) " +
+            "WHERE q.answer_score <> COALESCE(a.total, 0)",
+            nativeQuery = true)
+    int reconcileAnswerScores();
 
     @Modifying
-    @Query("UPDATE Question q SET q.acceptedAnswerId = :answerId WHERE q.id = :questionId")
+    @Query("UPDATE Question q SET q.lastActivityAt = :at WHERE q.id = :questionId")
+    void touchLastActivity(@Param("questionId") Long questionId, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE Question q SET q.acceptedAnswerId = :answerId, q.version = q.version + 1 WHERE q.id = :questionId")
     void updateAcceptedAnswer(@Param("questionId") Long questionId, @Param("answerId") Long answerId);
 
+    /**
+     * Sets the accepted answer only if the question is still at the version that was read.
+     * Returns 0 when another transaction changed the question in the meantime.
+     */
+    @Modifying
+    @Query("UPDATE Question q SET q.acceptedAnswerId = :answerId, q.version = q.version + 1 " +
+            "WHERE q.id = :questionId AND q.version = :version")
+    int updateAcceptedAnswerIfVersion(@Param("questionId") Long questionId,
+                                      @Param("answerId") Long answerId,
+                                      @Param("version") Long version);
+
     @Query("SELECT COUNT(q) FROM Question q WHERE q.user = :user AND q.isActive = true")
     long countByUser(@Param("user") User user);
 
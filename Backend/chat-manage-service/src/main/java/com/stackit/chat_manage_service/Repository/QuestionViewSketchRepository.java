@@ -0,0 +1,21 @@
+package com.stackit.chat_manage_service.Repository;
+
+import com.stackit.chat_manage_service.Entity.QuestionViewSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QuestionViewSketchRepository extends JpaRepository<QuestionViewSketch, Long> {
+
+    // Locked so that nodes flushing the same questions merge one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM QuestionViewSketch s WHERE s.questionId IN :questionIds")
+    List<QuestionViewSketch> findAllForUpdate(@Param("questionIds") Collection<Long> questionIds);
+}
@@ -0,0 +1,21 @@
+package com.stackit.chat_manage_service.Repository;
+
+import com.stackit.chat_manage_service.Entity.VoteEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface VoteEventRepository extends JpaRepository<VoteEvent, Long> {
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM VoteEvent e WHERE e.createdAt < :before")
+    long findLastEventIdBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM VoteEvent e WHERE e.id <= :lastEventId")
+    int deleteThrough(@Param("lastEventId") Long lastEventId);
+}
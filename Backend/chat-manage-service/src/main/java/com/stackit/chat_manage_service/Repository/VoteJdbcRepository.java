@@ -0,0 +1,233 @@
+package com.stackit.chat_manage_service.Repository;
+
+import com.stackit.chat_manage_service.Entity.enums.VoteAction;
+import com.stackit.chat_manage_service.Entity.enums.VoteType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch operations for the vote hot path that do not fit Spring Data's per-entity model.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VoteJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A merged counter change for one answer.
+     */
+    public record VoteCounterDelta(Long answerId, int upvoteDelta, int downvoteDelta) {
+    }
+
+    public record StoredVoteCounters(int upvotes, int downvotes) {
+    }
+
+    /**
+     * The counters currently stored on an answer, or zeros when the answer is gone.
+     */
+    public StoredVoteCounters findVoteCounters(Long answerId) {
+        List<StoredVoteCounters> rows = jdbcTemplate.query(
+                "SELECT upvote_count, downvote_count FROM answers WHERE id = ?",
+                (rs, rowNum) -> new StoredVoteCounters(rs.getInt(1), rs.getInt(2)),
+                answerId);
+        return rows.isEmpty() ? new StoredVoteCounters(0, 0) : rows.get(0);
+    }
+
+    public void batchApplyVoteDeltas(List<VoteCounterDelta> deltas, int batchSize) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE answers SET upvote_count = upvote_count + ?, " +
+                        "downvote_count = downvote_count + ?, " +
+                        "score = score + ? WHERE id = ?",
+                deltas,
+                batchSize,
+                (ps, delta) -> {
+                    ps.setInt(1, delta.upvoteDelta());
+                    ps.setInt(2, delta.downvoteDelta());
+                    ps.setInt(3, delta.upvoteDelta() - delta.downvoteDelta());
+                    ps.setLong(4, delta.answerId());
+                });
+        // Deltas of inactive answers are left out of their question's answer_score
+        jdbcTemplate.batchUpdate(
+                "UPDATE questions q JOIN answers a ON a.question_id = q.id " +
+                        "SET q.answer_score = q.answer_score + ? WHERE a.id = ? AND a.is_active = true",
+                deltas,
+                batchSize,
+                (ps, delta) -> {
+                    ps.setInt(1, delta.upvoteDelta() - delta.downvoteDelta());
+                    ps.setLong(2, delta.answerId());
+                });
+    }
+
+    /**
+     * Moves one user's vote on an answer from one state to another. A null type stands for
+     * "no vote".
+     */
+    public record VoteTransition(Long answerId, VoteType from, VoteType to) {
+    }
+
+    /**
+     * Applies a user's vote transitions with one batched statement per kind of change.
+     * Every statement is conditional on the expected current state, so the returned count
+     * is lower than the number of transitions when some other request changed one of
+     * these votes in the meantime.
+     */
+    public int applyVoteTransitions(Long userId, List<VoteTransition> transitions, int batchSize) {
+        List<VoteTransition> deletes = new ArrayList<>();
+        List<VoteTransition> updates = new ArrayList<>();
+        List<VoteTransition> inserts = new ArrayList<>();
+        for (VoteTransition transition : transitions) {
+            if (transition.to() == null) {
+                deletes.add(transition);
+            } else if (transition.from() == null) {
+                inserts.add(transition);
+            } else {
+                updates.add(transition);
+            }
+        }
+
+        int applied = 0;
+        if (!deletes.isEmpty()) {
+            applied += countApplied(jdbcTemplate.batchUpdate(
+                    "DELETE FROM votes WHERE user_id = ? AND answer_id = ? AND vote_type = ?",
+                    deletes,
+                    batchSize,
+                    (ps, transition) -> {
+                        ps.setLong(1, userId);
+                        ps.setLong(2, transition.answerId());
+                        ps.setString(3, transition.from().name());
+                    }));
+        }
+        if (!updates.isEmpty()) {
+            applied += countApplied(jdbcTemplate.batchUpdate(
+                    "UPDATE votes SET vote_type = ? WHERE user_id = ? AND answer_id = ? AND vote_type = ?",
+                    updates,
+                    batchSize,
+                    (ps, transition) -> {
+                        ps.setString(1, transition.to().name());
+                        ps.setLong(2, userId);
+                        ps.setLong(3, transition.answerId());
+                        ps.setString(4, transition.from().name());
+                    }));
+        }
+        if (!inserts.isEmpty()) {
+            applied += countApplied(jdbcTemplate.batchUpdate(
+                    "INSERT IGNORE INTO votes (user_id, answer_id, vote_type, created_at) VALUES (?, ?, ?, NOW(6))",
+                    inserts,
+                    batchSize,
+                    (ps, transition) -> {
+                        ps.setLong(1, userId);
+                        ps.setLong(2, transition.answerId());
+                        ps.setString(3, transition.to().name());
+                    }));
+        }
+        return applied;
+    }
+
+    private int countApplied(int[][] counts) {
+        int applied = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 1) {
+                    applied++;
+                }
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Absolute counter values for one answer, as rebuilt from the vote ledger.
+     */
+    public record VoteCounterTotals(Long answerId, Long authorId, int upvotes, int downvotes) {
+    }
+
+    /**
+     * One ledger row, reduced to what replay needs.
+     */
+    public record VoteEventRow(Long answerId, Long authorId, VoteAction action, VoteType voteType) {
+    }
+
+    public void batchInsertVoteEvents(Long voterId, List<VoteEventRow> events, int batchSize) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO vote_events (answer_id, voter_id, author_id, action, vote_type, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, NOW(6))",
+                events,
+                batchSize,
+                (ps, event) -> {
+                    ps.setLong(1, event.answerId());
+                    ps.setLong(2, voterId);
+                    ps.setLong(3, event.authorId());
+                    ps.setString(4, event.action().name());
+                    ps.setString(5, event.voteType().name());
+                });
+    }
+
+    public interface VoteEventHandler {
+        void handle(VoteEventRow event);
+    }
+
+    public interface SnapshotHandler {
+        void handle(VoteCounterTotals snapshot);
+    }
+
+    public long findMaxVoteEventId() {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM vote_events", Long.class);
+        return max != null ? max : 0L;
+    }
+
+    public void forEachSnapshot(SnapshotHandler handler) {
+        jdbcTemplate.query(
+                "SELECT answer_id, author_id, upvote_count, downvote_count FROM answer_vote_snapshots",
+                rs -> {
+                    handler.handle(new VoteCounterTotals(
+                            rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getInt(4)));
+                });
+    }
+
+    /**
+     * Streams ledger events with ids in (fromEventId, toEventId] in id order.
+     */
+    public void forEachVoteEvent(long fromEventId, long toEventId, VoteEventHandler handler) {
+        jdbcTemplate.query(
+                "SELECT answer_id, author_id, action, vote_type FROM vote_events " +
+                        "WHERE id > ? AND id <= ? ORDER BY id",
+                rs -> {
+                    handler.handle(new VoteEventRow(
+                            rs.getLong(1),
+                            rs.getLong(2),
+                            VoteAction.valueOf(rs.getString(3)),
+                            VoteType.valueOf(rs.getString(4))));
+                },
+                fromEventId, toEventId);
+    }
+
+    public void batchSetVoteCounters(List<VoteCounterTotals> totals, int batchSize) {
+        if (totals.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE answers SET upvote_count = ?, downvote_count = ?, score = ? WHERE id = ?",
+                totals,
+                batchSize,
+                (ps, total) -> {
+                    ps.setInt(1, total.upvotes());
+                    ps.setInt(2, total.downvotes());
+                    ps.setInt(3, total.upvotes() - total.downvotes());
+                    ps.setLong(4, total.answerId());
+                });
+    }
+}
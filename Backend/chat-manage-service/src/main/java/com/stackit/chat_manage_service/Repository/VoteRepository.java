@@ -4,11 +4,16 @@ import com.stackit.chat_manage_service.Auth.Entities.User;
 import com.stackit.chat_manage_service.Entity.Answer;
 import com.stackit.chat_manage_service.Entity.Vote;
 import com.stackit.chat_manage_service.Entity.enums.VoteType;
+import com.stackit.chat_manage_service.Repository.Projection.AnswerVoter;
+import com.stackit.chat_manage_service.Repository.Projection.UserAnswerVote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.query.Procedure;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,9 +41,37 @@ public interface VoteRepository extends JpaRepository<Vote, Long> {
             "FROM Vote v WHERE v.answer = :answer")
     Integer calculateScoreByAnswer(@Param("answer") Answer answer);
 
-    @Query("SELECT v FROM Vote v WHERE v.user = :user AND v.answer IN " +
-            "(SELECT a FROM Answer a WHERE a.question.id = :questionId)")
-    List<Vote> findByUserAndQuestionId(@Param("user") User user, @Param("questionId") Long questionId);
+    @Query("SELECT v.answer.id AS answerId, v.voteType AS voteType FROM Vote v " +
+            "WHERE v.user.id = :userId AND v.answer.question.id = :questionId")
+    List<UserAnswerVote> findByUserIdAndQuestionId(@Param("userId") Long userId, @Param("questionId") Long questionId);
+
+    @Query("SELECT v.answer.id AS answerId, v.voteType AS voteType FROM Vote v " +
+            "WHERE v.user.id = :userId AND v.answer.id IN :answerIds")
+    List<UserAnswerVote> findByUserIdAndAnswerIds(@Param("userId") Long userId, @Param("answerIds") Collection<Long> answerIds);
+
+    @Query("SELECT v.user.id AS userId, v.voteType AS voteType FROM Vote v WHERE v.answer.id = :answerId")
+    List<AnswerVoter> findVotersByAnswerId(@Param("answerId") Long answerId);
+
+    @Query("SELECT v.voteType FROM Vote v WHERE v.user.id = :userId AND v.answer.id = :answerId")
+    Optional<VoteType> findVoteTypeByUserIdAndAnswerId(@Param("userId") Long userId, @Param("answerId") Long answerId);
+
+    /**
+     * Applies toggle semantics (cast, flip or retract) for one user's vote on an answer in a
+     * single round trip, without loading entities. Returns the VoteAction that was applied,
+     * or null when the vote could not be written (e.g. the user does not exist).
+     * The routine is defined in db/vote-procedures.sql.
+     */
+    @Procedure(procedureName = "toggle_answer_vote", outputParameterName = "p_action")
+    String toggleAnswerVote(@Param("p_user_id") Long userId,
+                            @Param("p_answer_id") Long answerId,
+                            @Param("p_vote_type") String voteType);
+
+    @Modifying
+    @Query(value = "DELETE FROM votes WHERE user_id = :userId AND answer_id = :answerId AND vote_type = :voteType",
+            nativeQuery = true)
+    int deleteVote(@Param("userId") Long userId,
+                   @Param("answerId") Long answerId,
+                   @Param("voteType") String voteType);
 
     boolean existsByUserAndAnswer(User user, Answer answer);
 
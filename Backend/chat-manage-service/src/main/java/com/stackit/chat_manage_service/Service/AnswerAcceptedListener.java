@@ -0,0 +1,38 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Event.AnswerAcceptedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sends the acceptance broadcast and notification once the accepting transaction has
+ * committed, so a rolled-back accept never reaches clients and the request transaction
+ * is not held open for them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnswerAcceptedListener {
+
+    private final WebSocketService webSocketService;
+    private final NotificationService notificationService;
+
+    @TransactionalEventListener
+    public void onAnswerAccepted(AnswerAcceptedEvent event) {
+        // The acceptance is already committed; failures here must not fail the request
+        try {
+            webSocketService.broadcastAnswerAccepted(event.questionId(), event.answerId(), event.answerAuthorId());
+        } catch (RuntimeException e) {
+            log.error("Failed to broadcast acceptance of answer {}: {}", event.answerId(), e.getMessage());
+        }
+
+        try {
+            notificationService.createAnswerAcceptedNotification(event.answerId(), event.questionId(),
+                    event.questionTitle(), event.answerAuthorId(), event.acceptedByUserId());
+        } catch (RuntimeException e) {
+            log.error("Failed to create acceptance notification for answer {}: {}", event.answerId(), e.getMessage());
+        }
+    }
+}
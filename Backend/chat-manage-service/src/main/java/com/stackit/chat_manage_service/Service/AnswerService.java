@@ -4,22 +4,35 @@ import com.stackit.chat_manage_service.Auth.Entities.User;
 import com.stackit.chat_manage_service.Auth.Repository.UserRepository;
 import com.stackit.chat_manage_service.Entity.Answer;
 import com.stackit.chat_manage_service.Entity.Question;
+import com.stackit.chat_manage_service.Entity.RichTextBody;
+import com.stackit.chat_manage_service.Entity.enums.VoteType;
+import com.stackit.chat_manage_service.Event.AnswerAcceptedEvent;
+import com.stackit.chat_manage_service.Payload.Response.CursorPageResponse;
 import com.stackit.chat_manage_service.Payload.Response.UserSummaryResponse;
 import com.stackit.chat_manage_service.Repository.AnswerRepository;
+import com.stackit.chat_manage_service.Repository.Projection.AnswerAcceptanceTarget;
+import com.stackit.chat_manage_service.Repository.Projection.AnswerListingRow;
 import com.stackit.chat_manage_service.Repository.QuestionRepository;
 import com.stackit.chat_manage_service.Repository.VoteRepository;
 import com.stackit.chat_manage_service.Payload.Request.CreateAnswerRequest;
 import com.stackit.chat_manage_service.Payload.Response.AnswerResponse;
+import com.stackit.chat_manage_service.Utills.CursorUtils;
+import com.stackit.chat_manage_service.Utills.ExcerptUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Service
@@ -34,10 +47,18 @@ public class AnswerService {
     private final VoteRepository voteRepository;
     private final WebSocketService webSocketService;
     private final NotificationService notificationService;
+    private final VoteAggregator voteAggregator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.richtext.max-length:50000}")
     private int maxContentLength;
 
+    @Value("${app.richtext.excerpt-length:200}")
+    private int excerptLength;
+
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize;
+
     public AnswerResponse createAnswer(CreateAnswerRequest request) {
         log.info("Creating answer for question: {}", request.getQuestionId());
 
@@ -58,12 +79,14 @@ public class AnswerService {
         }
 
         Answer answer = Answer.builder()
-                .content(sanitizedContent)
+                .body(RichTextBody.of(sanitizedContent))
+                .excerpt(ExcerptUtils.excerpt(sanitizedContent, excerptLength))
                 .question(question)
                 .user(user)
                 .build();
 
         Answer savedAnswer = answerRepository.save(answer);
+        questionRepository.recordAnswerAdded(question.getId(), LocalDateTime.now());
         AnswerResponse response = mapToAnswerResponse(savedAnswer, null);
 
         // Send WebSocket notification
@@ -83,16 +106,87 @@ public class AnswerService {
 
     @Transactional(readOnly = true)
     public List<AnswerResponse> getAnswersByQuestion(Long questionId, Long currentUserId) {
-        Question question = questionRepository.findById(questionId)
-                .orElseThrow(() -> new RuntimeException("Question not found"));
+        if (!questionRepository.existsById(questionId)) {
+            throw new RuntimeException("Question not found");
+        }
+
+        // Answers, authors and vote counters in one statement
+        List<AnswerListingRow> rows = answerRepository.findListingByQuestionId(questionId);
 
-        List<Answer> answers = answerRepository.findByQuestionOrderedByScoreAndAcceptance(question);
+        // Load all of the viewer's votes on this question in one query
+        Map<Long, VoteType> currentUserVotes = loadUserVotes(currentUserId, questionId);
 
-        return answers.stream()
-                .map(answer -> mapToAnswerResponse(answer, currentUserId))
+        return rows.stream()
+                .map(row -> mapToAnswerResponse(row, questionId, currentUserVotes.get(row.getId())))
                 .toList();
     }
 
+    /**
+     * Keyset-paginated answers for a question, in ranking order. The cursor encodes the
+     * ranking tuple of the last answer returned, so no page ever uses OFFSET.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AnswerResponse> getAnswersByQuestion(Long questionId, String cursor,
+                                                                   int size, Long currentUserId) {
+        if (!questionRepository.existsById(questionId)) {
+            throw new RuntimeException("Question not found");
+        }
+
+        return loadAnswerPage(questionId, cursor, size, currentUserId);
+    }
+
+    /**
+     * One keyset page of a question's answers, for callers that have already checked
+     * that the question exists: the answer listing query plus at most one vote query.
+     * Pages are ordered and keyed by the stored score; the displayed counters also
+     * include votes the aggregator has not flushed yet.
+     */
+    public CursorPageResponse<AnswerResponse> loadAnswerPage(Long questionId, String cursor, int size, Long currentUserId) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+
+        // Fetch one extra row to know whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<AnswerListingRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = answerRepository.findListingByQuestionId(questionId, limit);
+        } else {
+            String[] position = CursorUtils.decode(cursor, 4);
+            try {
+                rows = answerRepository.findListingByQuestionIdAfter(questionId,
+                        Boolean.parseBoolean(position[0]),
+                        Integer.parseInt(position[1]),
+                        LocalDateTime.parse(position[2]),
+                        Long.parseLong(position[3]),
+                        limit);
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        Map<Long, VoteType> currentUserVotes = loadUserVotes(currentUserId,
+                rows.stream().map(AnswerListingRow::getId).toList());
+
+        String nextCursor = null;
+        if (hasNext) {
+            AnswerListingRow last = rows.get(rows.size() - 1);
+            nextCursor = CursorUtils.encode(last.getIsAccepted(), last.getScore(), last.getCreatedAt(), last.getId());
+        }
+
+        return CursorPageResponse.<AnswerResponse>builder()
+                .content(rows.stream()
+                        .map(row -> mapToAnswerResponse(row, questionId, currentUserVotes.get(row.getId())))
+                        .toList())
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public AnswerResponse getAnswerById(Long id, Long currentUserId) {
         Answer answer = answerRepository.findByIdAndIsActiveTrue(id)
@@ -106,8 +200,9 @@ public class AnswerService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        // Summary view: the answer body is not loaded
         return answerRepository.findByUser(user, pageable)
-                .map(answer -> mapToAnswerResponse(answer, null));
+                .map(answer -> mapToAnswerResponseWithVote(answer, null, false));
     }
 
     public AnswerResponse updateAnswer(Long id, CreateAnswerRequest request, Long currentUserId) {
@@ -123,8 +218,10 @@ public class AnswerService {
             throw new RuntimeException("Content exceeds maximum length");
         }
 
-        answer.setContent(sanitizedContent);
+        answer.getBody().setContent(sanitizedContent);
+        answer.setExcerpt(ExcerptUtils.excerpt(sanitizedContent, excerptLength));
         answer.setEditedAt(LocalDateTime.now());
+        questionRepository.touchLastActivity(answer.getQuestion().getId(), answer.getEditedAt());
 
         Answer savedAnswer = answerRepository.save(answer);
         AnswerResponse response = mapToAnswerResponse(savedAnswer, currentUserId);
@@ -136,31 +233,48 @@ public class AnswerService {
     }
 
     public void acceptAnswer(Long answerId, Long currentUserId) {
-        Answer answer = answerRepository.findByIdAndIsActiveTrue(answerId)
+        acceptAnswer(null, answerId, currentUserId);
+    }
+
+    /**
+     * Accepts an answer with two conditional statements: the question pointer moves only if
+     * the question is still at the version that was read, and the accepted flags of the old
+     * and new answer flip in a single UPDATE. Of two concurrent accepts, the second fails
+     * the version check and rolls back. The broadcast and notification are sent after commit.
+     *
+     * @param questionId expected question of the answer, or null to accept it on whatever
+     *                   question it belongs to
+     */
+    public void acceptAnswer(Long questionId, Long answerId, Long currentUserId) {
+        AnswerAcceptanceTarget target = answerRepository.findAcceptanceTargetById(answerId)
                 .orElseThrow(() -> new RuntimeException("Answer not found"));
 
-        Question question = answer.getQuestion();
+        if (questionId != null && !questionId.equals(target.getQuestionId())) {
+            throw new RuntimeException("Answer does not belong to this question");
+        }
 
-        if (!question.getUser().getId().equals(currentUserId)) {
+        if (!target.getQuestionOwnerId().equals(currentUserId)) {
             throw new RuntimeException("Only question owner can accept answers");
         }
 
-        // Unaccept all other answers for this question
-        answerRepository.unacceptAllAnswersForQuestion(question);
-
-        // Accept this answer
-        answerRepository.acceptAnswer(answerId);
+        if (answerId.equals(target.getAcceptedAnswerId())) {
+            log.info("Answer {} is already accepted for question {}", answerId, target.getQuestionId());
+            return;
+        }
 
-        // Update question's accepted answer ID
-        questionRepository.updateAcceptedAnswer(question.getId(), answerId);
+        int updated = questionRepository.updateAcceptedAnswerIfVersion(
+                target.getQuestionId(), answerId, target.getQuestionVersion());
+        if (updated == 0) {
+            throw new RuntimeException("Question was modified concurrently, please retry");
+        }
 
-        // Send WebSocket notification
-        webSocketService.broadcastAnswerAccepted(question.getId(), answerId);
+        answerRepository.flipAcceptedAnswer(target.getQuestionId(), answerId);
 
-        // Create notification for answer author
-        notificationService.createAnswerAcceptedNotification(answerId, currentUserId);
+        // Broadcast and notify once the acceptance is committed
+        eventPublisher.publishEvent(new AnswerAcceptedEvent(
+                target.getQuestionId(), target.getQuestionTitle(), answerId, target.getAnswerAuthorId(), currentUserId));
 
-        log.info("Answer {} accepted for question {}", answerId, question.getId());
+        log.info("Answer {} accepted for question {}", answerId, target.getQuestionId());
     }
 
     public void deleteAnswer(Long id, Long currentUserId) {
@@ -173,6 +287,7 @@ public class AnswerService {
 
         answer.setIsActive(false);
         answerRepository.save(answer);
+        questionRepository.recordAnswerRemoved(answer.getQuestion().getId(), answer.getId());
 
         // If this was the accepted answer, remove acceptance
         if (answer.getIsAccepted()) {
@@ -187,27 +302,43 @@ public class AnswerService {
         return content.trim();
     }
 
-    private AnswerResponse mapToAnswerResponse(Answer answer, Long currentUserId) {
-        // Calculate vote counts
-        long upvoteCount = voteRepository.countUpvotesByAnswer(answer);
-        long downvoteCount = voteRepository.countDownvotesByAnswer(answer);
-        int score = (int) (upvoteCount - downvoteCount);
-
-        // Get current user's vote if provided
-        String currentUserVote = null;
-        if (currentUserId != null) {
-            User currentUser = userRepository.findById(currentUserId).orElse(null);
-            if (currentUser != null) {
-                voteRepository.findByUserAndAnswer(currentUser, answer)
-                        .ifPresent(vote -> {
-                            // Set currentUserVote to the vote type string
-                        });
-            }
+    private Map<Long, VoteType> loadUserVotes(Long userId, Long questionId) {
+        if (userId == null) {
+            return Map.of();
         }
 
+        Map<Long, VoteType> votes = new HashMap<>();
+        voteRepository.findByUserIdAndQuestionId(userId, questionId)
+                .forEach(vote -> votes.put(vote.getAnswerId(), vote.getVoteType()));
+        return votes;
+    }
+
+    private Map<Long, VoteType> loadUserVotes(Long userId, List<Long> answerIds) {
+        if (userId == null || answerIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, VoteType> votes = new HashMap<>();
+        voteRepository.findByUserIdAndAnswerIds(userId, answerIds)
+                .forEach(vote -> votes.put(vote.getAnswerId(), vote.getVoteType()));
+        return votes;
+    }
+
+    private AnswerResponse mapToAnswerResponse(Answer answer, Long currentUserId) {
+        VoteType currentUserVote = currentUserId != null
+                ? voteRepository.findVoteTypeByUserIdAndAnswerId(currentUserId, answer.getId()).orElse(null)
+                : null;
+
+        return mapToAnswerResponseWithVote(answer, currentUserVote, true);
+    }
+
+    private AnswerResponse mapToAnswerResponseWithVote(Answer answer, VoteType currentUserVote, boolean includeBody) {
+        VoteAggregator.VoteCounts voteCounts = voteAggregator.countsFor(answer);
+
         return AnswerResponse.builder()
                 .id(answer.getId())
-                .content(answer.getContent())
+                .content(includeBody ? answer.getBody().getContent() : null)
+                .excerpt(answer.getExcerpt())
                 .isAccepted(answer.getIsAccepted())
                 .isActive(answer.getIsActive())
                 .createdAt(answer.getCreatedAt())
@@ -215,10 +346,42 @@ public class AnswerService {
                 .editedAt(answer.getEditedAt())
                 .user(mapToUserSummary(answer.getUser()))
                 .questionId(answer.getQuestion().getId())
-                .score(score)
-                .upvoteCount((int) upvoteCount)
-                .downvoteCount((int) downvoteCount)
-                .currentUserVote(currentUserVote)
+                .score(voteCounts.score())
+                .upvoteCount(voteCounts.upvotes())
+                .downvoteCount(voteCounts.downvotes())
+                .currentUserVote(currentUserVote != null ? currentUserVote.name() : null)
+                .build();
+    }
+
+    private AnswerResponse mapToAnswerResponse(AnswerListingRow row, Long questionId, VoteType currentUserVote) {
+        VoteAggregator.VoteCounts voteCounts = voteAggregator.countsFor(
+                row.getId(), row.getUpvoteCount(), row.getDownvoteCount());
+
+        UserSummaryResponse author = UserSummaryResponse.builder()
+                .id(row.getAuthorId())
+                .username(row.getAuthorUsername())
+                .displayName(row.getAuthorDisplayName())
+                .role(row.getAuthorRole())
+                .avatarUrl(row.getAuthorAvatarUrl())
+                .reputationScore(row.getAuthorReputationScore())
+                .createdAt(row.getAuthorCreatedAt())
+                .build();
+
+        return AnswerResponse.builder()
+                .id(row.getId())
+                .content(row.getContent())
+                .excerpt(row.getExcerpt())
+                .isAccepted(row.getIsAccepted())
+                .isActive(row.getIsActive())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
+                .editedAt(row.getEditedAt())
+                .user(author)
+                .questionId(questionId)
+                .score(voteCounts.score())
+                .upvoteCount(voteCounts.upvotes())
+                .downvoteCount(voteCounts.downvotes())
+                .currentUserVote(currentUserVote != null ? currentUserVote.name() : null)
                 .build();
     }
 
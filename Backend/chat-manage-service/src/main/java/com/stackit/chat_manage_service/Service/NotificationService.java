@@ -18,6 +18,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -77,33 +78,39 @@ public class NotificationService {
         webSocketService.sendNotificationToUser(question.getUser().getId(), mapToNotificationResponse(notification));
     }
 
-    public void createAnswerAcceptedNotification(Long answerId, Long triggeredByUserId) {
-        Answer answer = answerRepository.findByIdAndIsActiveTrue(answerId)
-                .orElseThrow(() -> new RuntimeException("Answer not found"));
-
-        User triggeredByUser = userRepository.findById(triggeredByUserId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    /**
+     * Notify the answer author that their answer was accepted. The caller passes the question
+     * and answer author, so neither the answer nor its question has to be re-read. Runs in its own transaction because it is
+     * called after the accepting transaction has committed.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void createAnswerAcceptedNotification(Long answerId, Long questionId, String questionTitle,
+                                                 Long answerAuthorId, Long triggeredByUserId) {
         // Don't create notification if user is accepting their own answer
-        if (answer.getUser().getId().equals(triggeredByUserId)) {
+        if (answerAuthorId.equals(triggeredByUserId)) {
             return;
         }
 
-        String message = String.format("Your answer to \"%s\" was accepted!",
-                truncateTitle(answer.getQuestion().getTitle()));
+        User triggeredByUser = userRepository.findById(triggeredByUserId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        User answerAuthor = userRepository.getReferenceById(answerAuthorId);
+
+        String message = String.format("Your answer to \"%s\" was accepted!", truncateTitle(questionTitle));
 
         Notification notification = createNotification(
-                answer.getUser(),
+                answerAuthor,
                 NotificationType.ANSWER_ACCEPTED,
                 message,
                 answerId,
                 "ANSWER",
-                "/questions/" + answer.getQuestion().getId() + "#answer-" + answerId,
+                "/questions/" + questionId + "#answer-" + answerId,
                 triggeredByUser
         );
 
         // Send real-time notification
-        webSocketService.sendNotificationToUser(answer.getUser().getId(), mapToNotificationResponse(notification));
+        if (notification != null) {
+            webSocketService.sendNotificationToUser(answerAuthorId, mapToNotificationResponse(notification));
+        }
     }
 
     public void createAnswerUpvotedNotification(Long answerId, Long triggeredByUserId) {
@@ -0,0 +1,223 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Event.QuestionChangedEvent;
+import com.stackit.chat_manage_service.Service.QuestionIndexRebuilder.LoadedQuestion;
+import com.stackit.chat_manage_service.Utills.ExcerptUtils;
+import com.stackit.chat_manage_service.Utills.HashUtils;
+import com.stackit.chat_manage_service.Utills.MinHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Locality-sensitive hashing index of question MinHash signatures, for finding likely
+ * duplicates of a question being written.
+ * <p>
+ * Each signature is cut into bands of consecutive values; two questions become candidates
+ * when any band matches exactly, and candidates are then ranked by signature similarity.
+ * A lookup touches one bucket per band rather than every question. With 16 bands of 4
+ * rows, pairs above roughly 0.5 similarity are very likely to share a band. Built by
+ * {@link QuestionIndexRebuilder} from the same load as the search index, at startup and
+ * periodically afterwards, and kept current in between from {@link QuestionChangedEvent}s.
+ */
+@Component
+@Slf4j
+public class QuestionDuplicateIndex {
+
+    private final int bands;
+    private final int rows;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, int[]> signatures = new HashMap<>();
+    private Map<Long, List<Long>> buckets = new HashMap<>();
+
+    // Signatures applied while a rebuild is loading, by question id; null removes the question
+    private Map<Long, int[]> changedDuringRebuild;
+
+    @Value("${app.duplicates.min-similarity:0.5}")
+    private double minSimilarity;
+
+    public QuestionDuplicateIndex(@Value("${app.duplicates.bands:16}") int bands,
+                                  @Value("${app.duplicates.rows-per-band:4}") int rows) {
+        this.bands = bands;
+        this.rows = rows;
+    }
+
+    public record SimilarQuestion(Long questionId, double similarity) {
+    }
+
+    /**
+     * Start recording changes; call before loading the data for {@link #completeRebuild}.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Swap in signatures computed from the loaded questions, then replay the changes
+     * recorded since {@link #beginRebuild}, which the load may predate.
+     */
+    public void completeRebuild(List<LoadedQuestion> loaded) {
+        Map<Long, int[]> newSignatures = new HashMap<>();
+        for (LoadedQuestion question : loaded) {
+            int[] signature = signatureOf(question.title(), question.text());
+            if (signature != null) {
+                newSignatures.put(question.id(), signature);
+            }
+        }
+
+        Map<Long, List<Long>> newBuckets = new HashMap<>();
+        newSignatures.forEach((questionId, signature) -> addToBuckets(newBuckets, questionId, signature));
+
+        lock.writeLock().lock();
+        try {
+            signatures = newSignatures;
+            buckets = newBuckets;
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.forEach(this::apply);
+            }
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Built question duplicate index: {} questions, {} buckets",
+                newSignatures.size(), newBuckets.size());
+    }
+
+    /**
+     * Stop recording changes, whether or not the rebuild completed.
+     */
+    public void endRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        // The change is already committed; a failure here must not fail the request
+        try {
+            int[] signature = event.active()
+                    ? signatureOf(event.title(), ExcerptUtils.plainText(event.content())) : null;
+
+            lock.writeLock().lock();
+            try {
+                apply(event.questionId(), signature);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.put(event.questionId(), signature);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to update duplicate index for question {}: {}", event.questionId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Indexed questions similar to the given title and body, most similar first.
+     *
+     * @param excludeId question to leave out of the results, or null
+     */
+    public List<SimilarQuestion> findSimilar(String title, String content, Long excludeId, int limit) {
+        int[] signature = signatureOf(title, ExcerptUtils.plainText(content));
+        if (signature == null || limit <= 0) {
+            return List.of();
+        }
+
+        List<SimilarQuestion> similar = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = new HashSet<>();
+            for (int band = 0; band < bands; band++) {
+                List<Long> bucket = buckets.get(bandKey(signature, band));
+                if (bucket != null) {
+                    candidates.addAll(bucket);
+                }
+            }
+            candidates.remove(excludeId);
+
+            for (Long candidate : candidates) {
+                double similarity = MinHash.similarity(signature, signatures.get(candidate));
+                if (similarity >= minSimilarity) {
+                    similar.add(new SimilarQuestion(candidate, similarity));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return similar.stream()
+                .sorted(Comparator.comparingDouble(SimilarQuestion::similarity).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private int[] signatureOf(String title, String text) {
+        return MinHash.signature(Objects.toString(title, "") + " " + text, bands * rows);
+    }
+
+    // Caller holds the write lock; a null signature only removes
+    private void apply(Long questionId, int[] signature) {
+        removeQuestion(questionId);
+        if (signature != null) {
+            signatures.put(questionId, signature);
+            addToBuckets(buckets, questionId, signature);
+        }
+    }
+
+    // Caller holds the write lock
+    private void removeQuestion(Long questionId) {
+        int[] signature = signatures.remove(questionId);
+        if (signature == null) {
+            return;
+        }
+
+        for (int band = 0; band < bands; band++) {
+            long key = bandKey(signature, band);
+            List<Long> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(questionId);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    private void addToBuckets(Map<Long, List<Long>> target, Long questionId, int[] signature) {
+        for (int band = 0; band < bands; band++) {
+            target.computeIfAbsent(bandKey(signature, band), key -> new ArrayList<>(2)).add(questionId);
+        }
+    }
+
+    // One hash table for all bands; the band number is mixed into the key
+    private long bandKey(int[] signature, int band) {
+        long h = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            h = HashUtils.mix64(h * 31 + signature[i]);
+        }
+        return h;
+    }
+}
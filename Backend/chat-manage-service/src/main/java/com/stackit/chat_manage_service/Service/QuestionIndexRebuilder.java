@@ -0,0 +1,96 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Repository.Projection.QuestionIndexRow;
+import com.stackit.chat_manage_service.Repository.Projection.QuestionTagRow;
+import com.stackit.chat_manage_service.Repository.QuestionRepository;
+import com.stackit.chat_manage_service.Utills.ExcerptUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+/**
+ * Rebuilds {@link QuestionSearchIndex} and {@link QuestionDuplicateIndex} from one shared
+ * load of the active questions, at startup and then periodically in the background. The
+ * bodies are read and stripped of markup once per pass rather than once per index, and
+ * the periodic pass picks up writes made on other nodes and repairs changes whose event
+ * failed. Both indexes record the events they receive from before the load starts until
+ * the new data is swapped in, and replay them on top.
+ */
+@Component
+@DependsOn("dataMigrationRunner")
+@RequiredArgsConstructor
+@Slf4j
+public class QuestionIndexRebuilder implements SmartInitializingSingleton {
+
+    private final QuestionRepository questionRepository;
+    private final QuestionSearchIndex questionSearchIndex;
+    private final QuestionDuplicateIndex questionDuplicateIndex;
+
+    @Value("${app.search.rebuild-chunk-size:5000}")
+    private int chunkSize;
+
+    /**
+     * An active question as the indexes see it; text is the body without markup.
+     */
+    public record LoadedQuestion(Long id, String title, String text, List<String> tagNames) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.rebuild-interval-ms:600000}",
+            initialDelayString = "${app.search.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        questionSearchIndex.beginRebuild();
+        questionDuplicateIndex.beginRebuild();
+        try {
+            List<LoadedQuestion> loaded = load();
+            questionSearchIndex.completeRebuild(loaded);
+            questionDuplicateIndex.completeRebuild(loaded);
+            log.info("Rebuilt question indexes from {} questions in {} ms",
+                    loaded.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild question indexes, keeping the previous ones: {}", e.getMessage());
+        } finally {
+            questionSearchIndex.endRebuild();
+            questionDuplicateIndex.endRebuild();
+        }
+    }
+
+    private List<LoadedQuestion> load() {
+        long maxId = questionRepository.findMaxId();
+        long chunks = (maxId + chunkSize) / chunkSize;
+
+        return LongStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> loadChunk(chunk * chunkSize + 1, (chunk + 1) * chunkSize + 1))
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private List<LoadedQuestion> loadChunk(long fromId, long toId) {
+        Map<Long, List<String>> tagsByQuestion = new HashMap<>();
+        for (QuestionTagRow row : questionRepository.findTagRowsByIdRange(fromId, toId)) {
+            tagsByQuestion.computeIfAbsent(row.getQuestionId(), id -> new ArrayList<>()).add(row.getTagName());
+        }
+
+        List<LoadedQuestion> questions = new ArrayList<>();
+        for (QuestionIndexRow row : questionRepository.findIndexRowsByIdRange(fromId, toId)) {
+            questions.add(new LoadedQuestion(row.getId(), row.getTitle(), ExcerptUtils.plainText(row.getContent()),
+                    tagsByQuestion.getOrDefault(row.getId(), List.of())));
+        }
+        return questions;
+    }
+}
@@ -0,0 +1,264 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Event.QuestionChangedEvent;
+import com.stackit.chat_manage_service.Service.QuestionIndexRebuilder.LoadedQuestion;
+import com.stackit.chat_manage_service.Utills.ExcerptUtils;
+import com.stackit.chat_manage_service.Utills.TextAnalyzer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over active questions, ranked with BM25.
+ * <p>
+ * Titles, tag names and body text are analyzed by {@link TextAnalyzer}; a term counts
+ * three times in a title, twice in a tag and once in the body. The index is built by
+ * {@link QuestionIndexRebuilder} at startup and periodically afterwards, and kept current
+ * in between from {@link QuestionChangedEvent}s, which are applied once their transaction
+ * commits. Events arriving during a rebuild are replayed onto the new index.
+ */
+@Component
+@Slf4j
+public class QuestionSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int BODY_WEIGHT = 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (question id -> weighted term frequency)
+    private Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    // Changes applied while a rebuild is loading, by question id; null removes the question
+    private Map<Long, IndexedQuestion> changedDuringRebuild;
+
+    /**
+     * Ids of the matching questions on the requested page, best first, and the total
+     * number of matches.
+     */
+    public record SearchHits(List<Long> questionIds, long total) {
+    }
+
+    private record Document(String[] terms, int length) {
+    }
+
+    private record IndexedQuestion(Long questionId, Map<String, Integer> termFrequencies) {
+    }
+
+    private record ScoredQuestion(Long questionId, double score) {
+    }
+
+    /**
+     * Start recording changes; call before loading the data for {@link #completeRebuild}.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Swap in an index built from the loaded questions, then replay the changes recorded
+     * since {@link #beginRebuild}, which the load may predate.
+     */
+    public void completeRebuild(List<LoadedQuestion> loaded) {
+        Map<String, Map<Long, Integer>> newPostings = new HashMap<>();
+        Map<Long, Document> newDocuments = new HashMap<>(loaded.size() * 2);
+        long newTotalLength = 0;
+        for (LoadedQuestion question : loaded) {
+            newTotalLength += add(newPostings, newDocuments,
+                    analyze(question.id(), question.title(), question.text(), question.tagNames()));
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            documents = newDocuments;
+            totalLength = newTotalLength;
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.forEach(this::apply);
+            }
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Built question search index: {} questions, {} terms",
+                newDocuments.size(), newPostings.size());
+    }
+
+    /**
+     * Stop recording changes, whether or not the rebuild completed.
+     */
+    public void endRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        // The change is already committed; a failure here must not fail the request
+        try {
+            if (event.active()) {
+                index(event.questionId(), event.title(), event.content(), event.tagNames());
+            } else {
+                remove(event.questionId());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to update search index for question {}: {}", event.questionId(), e.getMessage());
+        }
+    }
+
+    public void index(Long questionId, String title, String content, Collection<String> tagNames) {
+        IndexedQuestion question = analyze(questionId, title, ExcerptUtils.plainText(content), tagNames);
+
+        lock.writeLock().lock();
+        try {
+            apply(questionId, question);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(questionId, question);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long questionId) {
+        lock.writeLock().lock();
+        try {
+            apply(questionId, null);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(questionId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchHits search(String query, long offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.analyze(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return new SearchHits(List.of(), 0);
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 1 : (double) totalLength / documentCount;
+
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+
+                int df = posting.size();
+                double idf = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    int tf = entry.getValue();
+                    int length = documents.get(entry.getKey()).length();
+                    double norm = tf + K1 * (1 - B + B * length / averageLength);
+                    scores.merge(entry.getKey(), idf * tf * (K1 + 1) / norm, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Keep only the best offset + limit matches; ties go to the newer question
+        Comparator<ScoredQuestion> ranking = Comparator.comparingDouble(ScoredQuestion::score)
+                .thenComparing(ScoredQuestion::questionId);
+        long wanted = offset + limit;
+        PriorityQueue<ScoredQuestion> top = new PriorityQueue<>(ranking);
+        scores.forEach((questionId, score) -> {
+            top.add(new ScoredQuestion(questionId, score));
+            if (top.size() > wanted) {
+                top.poll();
+            }
+        });
+
+        List<ScoredQuestion> ranked = new ArrayList<>(top);
+        ranked.sort(ranking.reversed());
+        List<Long> page = ranked.stream()
+                .skip(offset)
+                .map(ScoredQuestion::questionId)
+                .toList();
+        return new SearchHits(page, scores.size());
+    }
+
+    private IndexedQuestion analyze(Long questionId, String title, String text, Collection<String> tagNames) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        TextAnalyzer.analyze(title).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        for (String tagName : tagNames) {
+            TextAnalyzer.analyze(tagName).forEach(term -> frequencies.merge(term, TAG_WEIGHT, Integer::sum));
+        }
+        TextAnalyzer.analyze(text).forEach(term -> frequencies.merge(term, BODY_WEIGHT, Integer::sum));
+        return new IndexedQuestion(questionId, frequencies);
+    }
+
+    private static int add(Map<String, Map<Long, Integer>> postings, Map<Long, Document> documents,
+                           IndexedQuestion question) {
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : question.termFrequencies().entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>())
+                    .put(question.questionId(), entry.getValue());
+            length += entry.getValue();
+        }
+        documents.put(question.questionId(),
+                new Document(question.termFrequencies().keySet().toArray(String[]::new), length));
+        return length;
+    }
+
+    // Caller holds the write lock; a null question only removes
+    private void apply(Long questionId, IndexedQuestion question) {
+        totalLength -= removeDocument(questionId);
+        if (question != null) {
+            totalLength += add(postings, documents, question);
+        }
+    }
+
+    // Caller holds the write lock; returns the length of the removed document
+    private int removeDocument(Long questionId) {
+        Document document = documents.remove(questionId);
+        if (document == null) {
+            return 0;
+        }
+
+        for (String term : document.terms()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(questionId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        return document.length();
+    }
+}
@@ -1,28 +1,46 @@
 package com.stackit.chat_manage_service.Service;
 
 import com.stackit.chat_manage_service.Payload.Request.CreateQuestionRequest;
+import com.stackit.chat_manage_service.Payload.Response.CursorPageResponse;
+import com.stackit.chat_manage_service.Payload.Response.QuestionPageResponse;
 import com.stackit.chat_manage_service.Payload.Response.QuestionResponse;
+import com.stackit.chat_manage_service.Payload.Response.SimilarQuestionResponse;
 import com.stackit.chat_manage_service.Payload.Response.TagResponse;
 import com.stackit.chat_manage_service.Payload.Response.UserSummaryResponse;
 import com.stackit.chat_manage_service.Repository.QuestionRepository;
 import com.stackit.chat_manage_service.Repository.TagRepository;
 import com.stackit.chat_manage_service.Auth.Repository.UserRepository;
 import com.stackit.chat_manage_service.Entity.Question;
+import com.stackit.chat_manage_service.Entity.RichTextBody;
 import com.stackit.chat_manage_service.Entity.Tag;
+import com.stackit.chat_manage_service.Event.QuestionChangedEvent;
+import com.stackit.chat_manage_service.Service.QuestionDuplicateIndex.SimilarQuestion;
+import com.stackit.chat_manage_service.Service.QuestionSearchIndex.SearchHits;
+import com.stackit.chat_manage_service.Utills.CursorUtils;
+import com.stackit.chat_manage_service.Utills.ExcerptUtils;
 import com.stackit.chat_manage_service.Auth.Entities.User;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -35,11 +53,52 @@ public class QuestionService {
     private final TagRepository tagRepository;
     private final TagService tagService;
     private final WebSocketService webSocketService;
-    private final NotificationService notificationService;
+    private final AnswerService answerService;
+    private final ViewCountBuffer viewCountBuffer;
+    private final ViewSketchBuffer viewSketchBuffer;
+    private final QuestionSearchIndex questionSearchIndex;
+    private final QuestionDuplicateIndex questionDuplicateIndex;
+    private final TagFilterIndex tagFilterIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.richtext.max-length:50000}")
     private int maxContentLength;
 
+    @Value("${app.richtext.excerpt-length:200}")
+    private int excerptLength;
+
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.duplicates.max-results:5}")
+    private int similarQuestionLimit;
+
+    /**
+     * Sort keys the cursor feed accepts. Each one pages over (key, id) descending and is
+     * backed by an ascending index on (is_active, key). InnoDB appends the primary key to
+     * that index, so a backward scan yields (key DESC, id DESC) without a filesort.
+     * <p>
+     * NEWEST keys on a value that never changes. ANSWERS and VIEWS key on counters that
+     * grow between page requests, so a question whose count rises past the cursor is
+     * skipped, and one that loses an answer can fall back below it and appear twice. The
+     * feed accepts that drift for these popularity sorts rather than pinning a snapshot.
+     */
+    public enum FeedSort {
+        NEWEST,
+        ACTIVE,
+        ANSWERS,
+        VIEWS;
+
+        public static FeedSort fromParam(String value) {
+            for (FeedSort sort : values()) {
+                if (sort.name().equalsIgnoreCase(value)) {
+                    return sort;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort: " + value);
+        }
+    }
+
     public QuestionResponse createQuestion(CreateQuestionRequest request) {
         log.info("Creating question: {}", request.getTitle());
 
@@ -52,14 +111,20 @@ public class QuestionService {
             throw new RuntimeException("Content exceeds maximum length");
         }
 
+        // Look for likely duplicates before this question joins the index
+        List<SimilarQuestionResponse> similarQuestions =
+                findSimilarQuestions(request.getTitle(), sanitizedDescription, null);
+
         // Process tags
         Set<Tag> tags = processTags(request.getTags());
 
         Question question = Question.builder()
                 .title(request.getTitle().trim())
-                .description(sanitizedDescription)
+                .body(RichTextBody.of(sanitizedDescription))
+                .excerpt(ExcerptUtils.excerpt(sanitizedDescription, excerptLength))
                 .user(user)
                 .tags(tags)
+                .lastActivityAt(LocalDateTime.now())
                 .build();
 
         Question savedQuestion = questionRepository.save(question);
@@ -67,61 +132,241 @@ public class QuestionService {
         // Update tag usage counts
         tags.forEach(tag -> tagRepository.incrementUsageCount(tag.getId()));
 
+        eventPublisher.publishEvent(new QuestionChangedEvent(savedQuestion.getId(), savedQuestion.getTitle(),
+                sanitizedDescription, tagNames(tags), true));
+
         QuestionResponse response = mapToQuestionResponse(savedQuestion);
 
         // Send WebSocket notification
         webSocketService.broadcastQuestionCreated(response);
+        response.setSimilarQuestions(similarQuestions);
 
         log.info("Question created successfully with ID: {}", savedQuestion.getId());
         return response;
     }
 
-    public QuestionResponse getQuestionById(Long id, Long currentUserId) {
+    /**
+     * @param viewerFingerprint identity of the viewer for unique-view counting, see
+     *                          {@link ViewSketchBuffer#fingerprint}
+     */
+    @Transactional(readOnly = true)
+    public QuestionResponse getQuestionById(Long id, Long currentUserId, long viewerFingerprint) {
         Question question = questionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Question not found"));
 
-        // Increment view count if not the question owner
+        return mapToViewedQuestion(question, currentUserId, viewerFingerprint);
+    }
+
+    /**
+     * Everything needed to render a question page in one read-only transaction: the
+     * question with its author, body and tags, then the first page of ranked answers with
+     * their authors, scores and the viewer's votes. The query count does not depend on
+     * the number of answers or tags.
+     */
+    @Transactional(readOnly = true)
+    public QuestionPageResponse getQuestionPage(Long id, Long currentUserId, long viewerFingerprint,
+                                                int answerPageSize) {
+        Question question = questionRepository.findPageById(id)
+                .orElseThrow(() -> new RuntimeException("Question not found"));
+
+        return QuestionPageResponse.builder()
+                .question(mapToViewedQuestion(question, currentUserId, viewerFingerprint))
+                .answers(answerService.loadAnswerPage(id, null, answerPageSize, currentUserId))
+                .build();
+    }
+
+    // Count the view if not the question owner; buffered, so the read stays read-only
+    private QuestionResponse mapToViewedQuestion(Question question, Long currentUserId, long viewerFingerprint) {
+        Long id = question.getId();
         if (!question.getUser().getId().equals(currentUserId)) {
-            questionRepository.incrementViewCount(id);
+            viewCountBuffer.record(id);
+            viewSketchBuffer.record(id, viewerFingerprint);
         }
 
-        return mapToQuestionResponse(question);
+        QuestionResponse response = mapToQuestionResponse(question);
+        response.setViewCount(response.getViewCount() + (int) viewCountBuffer.pendingFor(id));
+        response.setUniqueViewCount(viewSketchBuffer.uniqueViewCount(id));
+        return response;
     }
 
     public Page<QuestionResponse> getAllQuestions(Pageable pageable) {
-        return questionRepository.findByIsActiveTrueOrderByCreatedAtDesc(pageable)
-                .map(this::mapToQuestionResponse);
+        return toFeedPage(questionRepository.findActiveQuestionIds(pageable));
     }
 
+    /**
+     * Questions ordered by their most recent activity (creation, edit or new answer),
+     * served from idx_questions_last_activity.
+     */
+    public Page<QuestionResponse> getActiveQuestions(Pageable pageable) {
+        return toFeedPage(questionRepository.findActiveQuestionIdsByLastActivity(pageable));
+    }
+
+    /**
+     * Full-text search over titles, bodies and tags, ranked by relevance. Matching runs
+     * in the in-memory index; only the questions on the requested page are loaded.
+     */
+    @Transactional(readOnly = true)
     public Page<QuestionResponse> searchQuestions(String keyword, Pageable pageable) {
         if (keyword == null || keyword.trim().isEmpty()) {
             return getAllQuestions(pageable);
         }
 
-        return questionRepository.findByKeyword(keyword.trim(), pageable)
-                .map(this::mapToQuestionResponse);
+        SearchHits hits = questionSearchIndex.search(keyword, pageable.getOffset(), pageable.getPageSize());
+        return toFeedPage(new PageImpl<>(hits.questionIds(), pageable, hits.total()));
     }
 
-    public Page<QuestionResponse> getQuestionsByTags(List<String> tagNames, Pageable pageable) {
-        List<Tag> tags = tagNames.stream()
-                .map(name -> tagRepository.findByName(name)
-                        .orElseThrow(() -> new RuntimeException("Tag not found: " + name)))
-                .toList();
+    /**
+     * Newest questions carrying any of the tags, matched in the in-memory tag bitmaps, one
+     * cursor page at a time. Unknown tags simply match nothing. The cursor is the id of the
+     * last question returned.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<QuestionResponse> getQuestionsByTags(List<String> tagNames, String cursor, int size) {
+        return newestFirstPage(tagFilterIndex.anyOf(tagNames), cursor, size);
+    }
 
-        return questionRepository.findByTags(tags, pageable)
-                .map(this::mapToQuestionResponse);
+    /**
+     * Newest questions matching a boolean tag expression such as
+     * {@code java AND (spring OR hibernate) AND NOT kotlin}, one cursor page at a time.
+     * The cursor is the id of the last question returned.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<QuestionResponse> filterQuestionsByTags(String expression, String cursor, int size) {
+        return newestFirstPage(tagFilterIndex.evaluate(expression), cursor, size);
+    }
+
+    // Question ids follow creation order, so the highest ids are the newest questions
+    private CursorPageResponse<QuestionResponse> newestFirstPage(Roaring64Bitmap matches, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+
+        Long beforeId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                beforeId = Long.parseLong(CursorUtils.decode(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // Take one extra id to know whether another page follows
+        List<Long> ids = TagFilterIndex.newestFirst(matches, beforeId, pageSize + 1);
+        boolean hasNext = ids.size() > pageSize;
+        if (hasNext) {
+            ids = ids.subList(0, pageSize);
+        }
+
+        return CursorPageResponse.<QuestionResponse>builder()
+                .content(loadFeedItems(ids).stream().map(this::mapToQuestionSummary).toList())
+                .size(pageSize)
+                .nextCursor(hasNext ? CursorUtils.encode(ids.get(ids.size() - 1)) : null)
+                .hasNext(hasNext)
+                .build();
     }
 
     public Page<QuestionResponse> getUnansweredQuestions(Pageable pageable) {
-        return questionRepository.findUnansweredQuestions(pageable)
-                .map(this::mapToQuestionResponse);
+        return toFeedPage(questionRepository.findUnansweredQuestionIds(pageable));
     }
 
     @Transactional(readOnly = true)
     public Page<QuestionResponse> getRecentQuestions(int days, Pageable pageable) {
         LocalDateTime since = LocalDateTime.now().minusDays(days);
-        return questionRepository.findRecentQuestions(since, pageable)
-                .map(this::mapToQuestionResponse);
+        return toFeedPage(questionRepository.findRecentQuestionIds(since, pageable));
+    }
+
+    /**
+     * Infinite-scroll feed. The cursor carries the sort key and position of the last
+     * question returned, so every page is a bounded index range scan and no total count
+     * is ever computed.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<QuestionResponse> getQuestionFeed(String sort, String cursor, int size) {
+        FeedSort feedSort = FeedSort.fromParam(sort);
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+
+        // Fetch one extra id to know whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<Long> ids;
+        if (cursor == null || cursor.isBlank()) {
+            ids = switch (feedSort) {
+                case NEWEST -> questionRepository.findFeedIdsByNewest(limit);
+                case ACTIVE -> questionRepository.findFeedIdsByActivity(limit);
+                case ANSWERS -> questionRepository.findFeedIdsByAnswers(limit);
+                case VIEWS -> questionRepository.findFeedIdsByViews(limit);
+            };
+        } else {
+            String[] position = CursorUtils.decode(cursor, 3);
+            if (!feedSort.name().equals(position[0])) {
+                throw new IllegalArgumentException("Cursor does not match sort");
+            }
+            try {
+                Long lastId = Long.parseLong(position[2]);
+                ids = switch (feedSort) {
+                    case NEWEST -> questionRepository.findFeedIdsByNewestAfter(
+                            LocalDateTime.parse(position[1]), lastId, limit);
+                    case ACTIVE -> questionRepository.findFeedIdsByActivityAfter(
+                            LocalDateTime.parse(position[1]), lastId, limit);
+                    case ANSWERS -> questionRepository.findFeedIdsByAnswersAfter(
+                            Integer.parseInt(position[1]), lastId, limit);
+                    case VIEWS -> questionRepository.findFeedIdsByViewsAfter(
+                            Integer.parseInt(position[1]), lastId, limit);
+                };
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        boolean hasNext = ids.size() > pageSize;
+        if (hasNext) {
+            ids = ids.subList(0, pageSize);
+        }
+
+        List<Question> questions = loadFeedItems(ids);
+
+        String nextCursor = null;
+        if (hasNext && !questions.isEmpty()) {
+            Question last = questions.get(questions.size() - 1);
+            Object key = switch (feedSort) {
+                case NEWEST -> last.getCreatedAt();
+                case ACTIVE -> last.getLastActivityAt();
+                case ANSWERS -> last.getAnswerCount();
+                case VIEWS -> last.getViewCount();
+            };
+            nextCursor = CursorUtils.encode(feedSort.name(), key, last.getId());
+        }
+
+        return CursorPageResponse.<QuestionResponse>builder()
+                .content(questions.stream().map(this::mapToQuestionSummary).toList())
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Active questions that look like near-duplicates of the given title and body, most
+     * similar first. Candidates come from the in-memory LSH index; only they are loaded.
+     */
+    @Transactional(readOnly = true)
+    public List<SimilarQuestionResponse> findSimilarQuestions(String title, String description, Long excludeId) {
+        List<SimilarQuestion> similar = questionDuplicateIndex.findSimilar(title, description, excludeId,
+                similarQuestionLimit);
+        if (similar.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Question> questionsById = new HashMap<>();
+        questionRepository.findAllById(similar.stream().map(SimilarQuestion::questionId).toList())
+                .forEach(question -> questionsById.put(question.getId(), question));
+
+        return similar.stream()
+                .filter(match -> questionsById.containsKey(match.questionId()))
+                .filter(match -> questionsById.get(match.questionId()).getIsActive())
+                .map(match -> SimilarQuestionResponse.builder()
+                        .id(match.questionId())
+                        .title(questionsById.get(match.questionId()).getTitle())
+                        .similarity(match.similarity())
+                        .build())
+                .toList();
     }
 
     public QuestionResponse updateQuestion(Long id, CreateQuestionRequest request, Long currentUserId) {
@@ -134,7 +379,9 @@ public class QuestionService {
 
         // Update basic fields
         question.setTitle(request.getTitle().trim());
-        question.setDescription(sanitizeHtmlContent(request.getDescription()));
+        String sanitizedDescription = sanitizeHtmlContent(request.getDescription());
+        question.getBody().setContent(sanitizedDescription);
+        question.setExcerpt(ExcerptUtils.excerpt(sanitizedDescription, excerptLength));
 
         // Update tags
         Set<Tag> oldTags = new HashSet<>(question.getTags());
@@ -153,6 +400,9 @@ public class QuestionService {
         question.setTags(newTags);
 
         Question savedQuestion = questionRepository.save(question);
+        questionRepository.touchLastActivity(id, LocalDateTime.now());
+        eventPublisher.publishEvent(new QuestionChangedEvent(id, savedQuestion.getTitle(),
+                sanitizedDescription, tagNames(newTags), true));
         QuestionResponse response = mapToQuestionResponse(savedQuestion);
 
         // Send WebSocket notification
@@ -162,20 +412,7 @@ public class QuestionService {
     }
 
     public void acceptAnswer(Long questionId, Long answerId, Long currentUserId) {
-        Question question = questionRepository.findById(questionId)
-                .orElseThrow(() -> new RuntimeException("Question not found"));
-
-        if (!question.getUser().getId().equals(currentUserId)) {
-            throw new RuntimeException("Only question owner can accept answers");
-        }
-
-        questionRepository.updateAcceptedAnswer(questionId, answerId);
-
-        // Send WebSocket notification
-        webSocketService.broadcastAnswerAccepted(questionId, answerId);
-
-        // Create notification for answer author
-        notificationService.createAnswerAcceptedNotification(answerId, currentUserId);
+        answerService.acceptAnswer(questionId, answerId, currentUserId);
     }
 
     public void deleteQuestion(Long id, Long currentUserId) {
@@ -191,10 +428,15 @@ public class QuestionService {
 
         // Decrement tag usage counts
         question.getTags().forEach(tag -> tagRepository.decrementUsageCount(tag.getId()));
+        eventPublisher.publishEvent(QuestionChangedEvent.removed(id));
 
         log.info("Question deleted: {}", id);
     }
 
+    private Set<String> tagNames(Set<Tag> tags) {
+        return tags.stream().map(Tag::getName).collect(Collectors.toSet());
+    }
+
     private Set<Tag> processTags(Set<String> tagNames) {
         Set<Tag> tags = new HashSet<>();
 
@@ -208,12 +450,53 @@ public class QuestionService {
         return tags;
     }
 
+    /**
+     * Second phase of a paginated feed: load the questions on the id page, with their users
+     * and tags, in one query, and keep the order of the id page.
+     */
+    private Page<QuestionResponse> toFeedPage(Page<Long> idPage) {
+        List<QuestionResponse> content = loadFeedItems(idPage.getContent()).stream()
+                .map(this::mapToQuestionSummary)
+                .toList();
+
+        return new PageImpl<>(content, idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    /**
+     * Load the given questions with their users and tags in one query, in the order of ids.
+     */
+    private List<Question> loadFeedItems(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Question> questionsById = new HashMap<>();
+        questionRepository.findFeedItemsByIds(ids)
+                .forEach(question -> questionsById.put(question.getId(), question));
+
+        return ids.stream()
+                .map(questionsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     private String sanitizeHtmlContent(String content) {
         // This is a simplified sanitization - in production, use a proper HTML sanitizer like OWASP Java HTML Sanitizer
         return content.trim();
     }
 
     private QuestionResponse mapToQuestionResponse(Question question) {
+        return mapToQuestionResponse(question, true);
+    }
+
+    /**
+     * List views: the question body is neither loaded nor decompressed.
+     */
+    private QuestionResponse mapToQuestionSummary(Question question) {
+        return mapToQuestionResponse(question, false);
+    }
+
+    private QuestionResponse mapToQuestionResponse(Question question, boolean includeBody) {
         // Safely handle tags collection
         Set<TagResponse> tagResponses = new HashSet<>();
         if (question.getTags() != null) {
@@ -230,7 +513,8 @@ public class QuestionService {
         return QuestionResponse.builder()
                 .id(question.getId())
                 .title(question.getTitle())
-                .description(question.getDescription())
+                .description(includeBody ? question.getBody().getContent() : null)
+                .excerpt(question.getExcerpt())
                 .viewCount(question.getViewCount())
                 .isActive(question.getIsActive())
                 .isClosed(question.getIsClosed())
@@ -240,7 +524,8 @@ public class QuestionService {
                 .updatedAt(question.getUpdatedAt())
                 .user(mapToUserSummary(question.getUser()))
                 .tags(tagResponses)
-                .answerCount(question.getAnswers() != null ? question.getAnswers().size() : 0)
+                .answerCount(question.getAnswerCount())
+                .lastActivityAt(question.getLastActivityAt())
                 .hasAcceptedAnswer(question.getAcceptedAnswerId() != null)
                 .build();
     }
@@ -0,0 +1,422 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Payload.Response.QuestionSuggestionResponse;
+import com.stackit.chat_manage_service.Repository.Projection.QuestionTypeaheadRow;
+import com.stackit.chat_manage_service.Repository.QuestionRepository;
+import com.stackit.chat_manage_service.Utills.TextAnalyzer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+
+/**
+ * Prefix typeahead over question title words.
+ * <p>
+ * Suggestions are served from an immutable trie that is rebuilt in the background on a
+ * schedule and swapped in with a single volatile write, so lookups never take a lock.
+ * Every node stores the best-ranked questions having a title word that starts with the
+ * node's prefix, which makes a single-word lookup one walk down the trie however common
+ * the prefix is. Nodes ending a whole word also list every question having that word, and
+ * those lists are laid out in depth-first order, so a prefix's whole subtree is one slice.
+ * Longer queries intersect the earlier words' lists with that slice over all titles rather
+ * than within the per-node cut. Questions are ranked by view count plus a weighted answer
+ * score.
+ */
+@Component
+@DependsOn("dataMigrationRunner")
+@Slf4j
+public class QuestionTypeaheadIndex implements SmartInitializingSingleton {
+
+    private static final int MAX_WORD_LENGTH = 32;
+
+    private final QuestionRepository questionRepository;
+    private final int suggestionsPerNode;
+
+    private volatile TitleTrie trie = TitleTrie.EMPTY;
+
+    @Value("${app.search.rebuild-chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.search.typeahead.score-weight:10}")
+    private double scoreWeight;
+
+    public QuestionTypeaheadIndex(QuestionRepository questionRepository,
+                                  @Value("${app.search.typeahead.suggestions-per-node:10}") int suggestionsPerNode) {
+        this.questionRepository = questionRepository;
+        this.suggestionsPerNode = suggestionsPerNode;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.typeahead.rebuild-interval-ms:60000}",
+            initialDelayString = "${app.search.typeahead.rebuild-interval-ms:60000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            long maxId = questionRepository.findMaxId();
+            long chunks = (maxId + chunkSize) / chunkSize;
+
+            List<QuestionTypeaheadRow> rows = LongStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> questionRepository.findTypeaheadRowsByIdRange(
+                            chunk * chunkSize + 1, (chunk + 1) * chunkSize + 1))
+                    .flatMap(List::stream)
+                    .sorted(Comparator.comparingDouble(this::rank).reversed()
+                            .thenComparing(QuestionTypeaheadRow::getId, Comparator.reverseOrder()))
+                    .toList();
+
+            trie = TitleTrie.build(rows, suggestionsPerNode);
+            log.debug("Rebuilt typeahead trie: {} questions, {} nodes in {} ms",
+                    rows.size(), trie.nodeCount(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild typeahead trie, keeping the previous one: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Questions with a title word starting with the last word of the query, best first.
+     * Earlier words of the query must appear in the title as whole words.
+     *
+     * @param limit maximum number of suggestions, capped at app.search.typeahead.suggestions-per-node
+     */
+    public List<QuestionSuggestionResponse> suggest(String query, int limit) {
+        List<String> words = TextAnalyzer.tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        TitleTrie current = trie;
+        int capped = Math.min(limit, suggestionsPerNode);
+        String prefix = words.get(words.size() - 1);
+        List<String> required = words.subList(0, words.size() - 1).stream().distinct().toList();
+        int[] matches = required.isEmpty()
+                ? current.lookup(prefix, capped)
+                : current.withAllWordsAndPrefix(required, prefix, capped);
+
+        List<QuestionSuggestionResponse> suggestions = new ArrayList<>(matches.length);
+        for (int index : matches) {
+            suggestions.add(QuestionSuggestionResponse.builder()
+                    .id(current.questionIds[index])
+                    .title(current.titles[index])
+                    .build());
+        }
+        return suggestions;
+    }
+
+    private double rank(QuestionTypeaheadRow row) {
+        return row.getViewCount() + scoreWeight * row.getScore();
+    }
+
+    /**
+     * Immutable trie in flat arrays. Node 0 is the root; the children of a node are
+     * contiguous and sorted by label. Questions are referred to by their index in rank
+     * order, so every ascending list of indexes is also best first.
+     * <p>
+     * Each node's suggestions are a slice of one shared array. The whole-word lists are
+     * slices of another, stored in depth-first order of their nodes: a node's position in
+     * that order and the end of its subtree bound the whole-word lists of every word with
+     * the node's prefix. Each question also lists the depth-first positions of its title
+     * words, ascending, so whether it has a word with a given prefix is one binary search.
+     */
+    private static final class TitleTrie {
+
+        static final TitleTrie EMPTY = build(List.of(), 0);
+
+        final long[] questionIds;
+        final String[] titles;
+        final char[] labels;
+        final int[] firstChild;
+        final int[] childCount;
+        final int[] suggestionStart;
+        final int[] suggestions;
+        final int[] depthFirst;
+        final int[] subtreeEnd;
+        final int[] wordStart;
+        final int[] wordQuestions;
+        final int[] titleWordStart;
+        final int[] titleWords;
+
+        private TitleTrie(long[] questionIds, String[] titles, char[] labels, int[] firstChild,
+                          int[] childCount, int[] suggestionStart, int[] suggestions, int[] depthFirst,
+                          int[] subtreeEnd, int[] wordStart, int[] wordQuestions, int[] titleWordStart,
+                          int[] titleWords) {
+            this.questionIds = questionIds;
+            this.titles = titles;
+            this.labels = labels;
+            this.firstChild = firstChild;
+            this.childCount = childCount;
+            this.suggestionStart = suggestionStart;
+            this.suggestions = suggestions;
+            this.depthFirst = depthFirst;
+            this.subtreeEnd = subtreeEnd;
+            this.wordStart = wordStart;
+            this.wordQuestions = wordQuestions;
+            this.titleWordStart = titleWordStart;
+            this.titleWords = titleWords;
+        }
+
+        int nodeCount() {
+            return labels.length;
+        }
+
+        int[] lookup(String prefix, int limit) {
+            int node = find(prefix);
+            if (node < 0) {
+                return new int[0];
+            }
+            int from = suggestionStart[node];
+            return Arrays.copyOfRange(suggestions, from, Math.min(suggestionStart[node + 1], from + limit));
+        }
+
+        /**
+         * The best questions having every required word in the title and a title word
+         * starting with the prefix, at most limit of them, best first. Words longer than
+         * the indexed length match on their indexed part.
+         */
+        int[] withAllWordsAndPrefix(List<String> required, String prefix, int limit) {
+            int prefixNode = find(prefix);
+            if (prefixNode < 0) {
+                return new int[0];
+            }
+            int subtreeFrom = depthFirst[prefixNode];
+            int subtreeTo = subtreeEnd[prefixNode];
+
+            // Slices of wordQuestions, one per required word, shortest first
+            int[][] lists = new int[required.size()][];
+            for (int i = 0; i < required.size(); i++) {
+                int node = find(required.get(i));
+                if (node < 0) {
+                    return new int[0];
+                }
+                lists[i] = new int[]{wordStart[depthFirst[node]], wordStart[depthFirst[node] + 1]};
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list[1] - list[0]));
+
+            int[] shortest = lists[0];
+            int prefixFrom = wordStart[subtreeFrom];
+            int prefixTo = wordStart[subtreeTo];
+            int[] result = new int[limit];
+            int count = 0;
+
+            if (shortest[1] - shortest[0] <= prefixTo - prefixFrom) {
+                // Walk the rarest word in rank order and stop as soon as enough match
+                for (int i = shortest[0]; i < shortest[1] && count < limit; i++) {
+                    int index = wordQuestions[i];
+                    if (inAll(index, lists, 1) && hasWordIn(index, subtreeFrom, subtreeTo)) {
+                        result[count++] = index;
+                    }
+                }
+                return Arrays.copyOf(result, count);
+            }
+
+            // The prefix's subtree lists fewer questions, but as one sorted run per word, so
+            // all of them are probed and the best matches kept
+            int[] matched = new int[prefixTo - prefixFrom];
+            int matchedCount = 0;
+            for (int i = prefixFrom; i < prefixTo; i++) {
+                int index = wordQuestions[i];
+                if (inAll(index, lists, 0)) {
+                    matched[matchedCount++] = index;
+                }
+            }
+            Arrays.sort(matched, 0, matchedCount);
+            for (int i = 0; i < matchedCount && count < limit; i++) {
+                if (count == 0 || result[count - 1] != matched[i]) {
+                    result[count++] = matched[i];
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        private boolean inAll(int index, int[][] lists, int from) {
+            for (int i = from; i < lists.length; i++) {
+                if (Arrays.binarySearch(wordQuestions, lists[i][0], lists[i][1], index) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean hasWordIn(int index, int subtreeFrom, int subtreeTo) {
+            int end = titleWordStart[index + 1];
+            int found = Arrays.binarySearch(titleWords, titleWordStart[index], end, subtreeFrom);
+            int first = found >= 0 ? found : -found - 1;
+            return first < end && titleWords[first] < subtreeTo;
+        }
+
+        private int find(String prefix) {
+            int node = 0;
+            for (int i = 0; i < Math.min(prefix.length(), MAX_WORD_LENGTH); i++) {
+                int from = firstChild[node];
+                int child = Arrays.binarySearch(labels, from, from + childCount[node], prefix.charAt(i));
+                if (child < 0) {
+                    return -1;
+                }
+                node = child;
+            }
+            return node;
+        }
+
+        private static final class BuildNode {
+            final TreeMap<Character, BuildNode> children = new TreeMap<>();
+            final int[] top;
+            int topCount;
+            int[] words = new int[0];
+            int wordCount;
+            int depthFirst;
+            int subtreeEnd;
+
+            BuildNode(int capacity) {
+                top = new int[capacity];
+            }
+
+            void offer(int index) {
+                // Rows arrive in rank order, so the first ones to reach a node are its best
+                if (topCount < top.length && (topCount == 0 || top[topCount - 1] != index)) {
+                    top[topCount++] = index;
+                }
+            }
+
+            void addWord(int index) {
+                if (wordCount > 0 && words[wordCount - 1] == index) {
+                    return;
+                }
+                if (wordCount == words.length) {
+                    words = Arrays.copyOf(words, Math.max(4, wordCount * 2));
+                }
+                words[wordCount++] = index;
+            }
+        }
+
+        /**
+         * @param rows questions sorted best first
+         */
+        static TitleTrie build(List<QuestionTypeaheadRow> rows, int suggestionsPerNode) {
+            long[] questionIds = new long[rows.size()];
+            String[] titles = new String[rows.size()];
+            BuildNode root = new BuildNode(0);
+            int nodeCount = 1;
+
+            for (int index = 0; index < rows.size(); index++) {
+                QuestionTypeaheadRow row = rows.get(index);
+                questionIds[index] = row.getId();
+                titles[index] = row.getTitle();
+
+                for (String word : TextAnalyzer.tokenize(row.getTitle())) {
+                    BuildNode node = root;
+                    for (int i = 0; i < Math.min(word.length(), MAX_WORD_LENGTH); i++) {
+                        BuildNode child = node.children.get(word.charAt(i));
+                        if (child == null) {
+                            child = new BuildNode(suggestionsPerNode);
+                            node.children.put(word.charAt(i), child);
+                            nodeCount++;
+                        }
+                        child.offer(index);
+                        node = child;
+                    }
+                    node.addWord(index);
+                }
+            }
+
+            // Depth-first positions; lay out whole-word lists in that order and count each
+            // question's title words
+            BuildNode[] byDepthFirst = new BuildNode[nodeCount];
+            int[] wordStart = new int[nodeCount + 1];
+            int[] titleWordStart = new int[rows.size() + 1];
+            int wordsWritten = 0;
+            ArrayDeque<BuildNode> stack = new ArrayDeque<>();
+            stack.push(root);
+            for (int position = 0; position < nodeCount; position++) {
+                BuildNode current = stack.pop();
+                current.depthFirst = position;
+                byDepthFirst[position] = current;
+                wordStart[position] = wordsWritten;
+                wordsWritten += current.wordCount;
+                for (int i = 0; i < current.wordCount; i++) {
+                    titleWordStart[current.words[i] + 1]++;
+                }
+                current.children.descendingMap().values().forEach(stack::push);
+            }
+            wordStart[nodeCount] = wordsWritten;
+            // A subtree ends where the next sibling of its root, or of an ancestor, begins
+            for (int position = nodeCount - 1; position >= 0; position--) {
+                BuildNode current = byDepthFirst[position];
+                current.subtreeEnd = current.children.isEmpty()
+                        ? position + 1 : current.children.lastEntry().getValue().subtreeEnd;
+            }
+
+            int[] wordQuestions = new int[wordsWritten];
+            for (int index = 0; index < rows.size(); index++) {
+                titleWordStart[index + 1] += titleWordStart[index];
+            }
+            int[] titleWords = new int[titleWordStart[rows.size()]];
+            int[] titleWordsWritten = Arrays.copyOf(titleWordStart, rows.size());
+            for (int position = 0; position < nodeCount; position++) {
+                BuildNode current = byDepthFirst[position];
+                System.arraycopy(current.words, 0, wordQuestions, wordStart[position], current.wordCount);
+                // Positions are visited in ascending order, so each question's list is sorted
+                for (int i = 0; i < current.wordCount; i++) {
+                    titleWords[titleWordsWritten[current.words[i]]++] = position;
+                }
+            }
+
+            // Breadth-first numbering keeps every node's children contiguous
+            char[] labels = new char[nodeCount];
+            int[] firstChild = new int[nodeCount];
+            int[] childCount = new int[nodeCount];
+            int[] suggestionStart = new int[nodeCount + 1];
+            int[] depthFirst = new int[nodeCount];
+            int[] subtreeEnd = new int[nodeCount];
+            int[] suggestions = new int[countSuggestions(root)];
+
+            ArrayDeque<BuildNode> queue = new ArrayDeque<>();
+            queue.add(root);
+            int next = 1;
+            int written = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                BuildNode current = queue.poll();
+                suggestionStart[node] = written;
+                System.arraycopy(current.top, 0, suggestions, written, current.topCount);
+                written += current.topCount;
+                depthFirst[node] = current.depthFirst;
+                subtreeEnd[node] = current.subtreeEnd;
+
+                firstChild[node] = next;
+                childCount[node] = current.children.size();
+                for (Map.Entry<Character, BuildNode> entry : current.children.entrySet()) {
+                    labels[next++] = entry.getKey();
+                    queue.add(entry.getValue());
+                }
+            }
+            suggestionStart[nodeCount] = written;
+
+            return new TitleTrie(questionIds, titles, labels, firstChild, childCount, suggestionStart, suggestions,
+                    depthFirst, subtreeEnd, wordStart, wordQuestions, titleWordStart, titleWords);
+        }
+
+        private static int countSuggestions(BuildNode root) {
+            int total = 0;
+            ArrayDeque<BuildNode> queue = new ArrayDeque<>();
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                BuildNode node = queue.poll();
+                total += node.topCount;
+                queue.addAll(node.children.values());
+            }
+            return total;
+        }
+    }
+}
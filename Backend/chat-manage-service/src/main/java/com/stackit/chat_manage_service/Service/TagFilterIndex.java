@@ -0,0 +1,376 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Event.QuestionChangedEvent;
+import com.stackit.chat_manage_service.Repository.Projection.QuestionTagRow;
+import com.stackit.chat_manage_service.Repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.LongStream;
+
+/**
+ * Compressed bitmap posting lists of active question ids, one per tag, for evaluating
+ * tag filters entirely in memory.
+ * <p>
+ * Filters are boolean expressions over tag names: {@code java AND (spring OR hibernate)
+ * AND NOT kotlin}. {@code &}, {@code |}, {@code ,} and {@code !} or a leading {@code -}
+ * are accepted as operators too, and adjacent tags without an operator are ANDed. Question
+ * ids are assigned in creation order, so id order stands in for created_at order: results
+ * are paged newest first by walking the result bitmap downwards from the cursor id. Each
+ * question's current tags are kept too, so a change touches only the posting lists of the
+ * tags it adds or removes. Built at startup from parallel chunked loads,
+ * then kept current from {@link QuestionChangedEvent}s and rebuilt periodically in the
+ * background so that writes from other nodes and failed events converge.
+ */
+@Component
+@DependsOn("dataMigrationRunner")
+@RequiredArgsConstructor
+@Slf4j
+public class TagFilterIndex implements SmartInitializingSingleton {
+
+    private static final int MAX_EXPRESSION_LENGTH = 500;
+
+    private final QuestionRepository questionRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Roaring64Bitmap> postings = new HashMap<>();
+    private Map<Long, Set<String>> tagsByQuestion = new HashMap<>();
+    private Roaring64Bitmap active = new Roaring64Bitmap();
+
+    // Events applied while a rebuild is loading, latest per question id
+    private Map<Long, QuestionChangedEvent> changedDuringRebuild;
+
+    @Value("${app.search.rebuild-chunk-size:5000}")
+    private int chunkSize;
+
+    private record Chunk(List<Long> activeIds, List<QuestionTagRow> tags) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.rebuild-interval-ms:600000}",
+            initialDelayString = "${app.search.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long maxId = questionRepository.findMaxId();
+            long chunks = (maxId + chunkSize) / chunkSize;
+
+            Map<String, Roaring64Bitmap> newPostings = new HashMap<>();
+            Map<Long, Set<String>> newTagsByQuestion = new HashMap<>();
+            Roaring64Bitmap newActive = new Roaring64Bitmap();
+            LongStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> {
+                        long fromId = chunk * chunkSize + 1;
+                        long toId = (chunk + 1) * chunkSize + 1;
+                        return new Chunk(questionRepository.findActiveIdsByIdRange(fromId, toId),
+                                questionRepository.findTagRowsByIdRange(fromId, toId));
+                    })
+                    .forEachOrdered(chunk -> {
+                        chunk.activeIds().forEach(newActive::addLong);
+                        for (QuestionTagRow row : chunk.tags()) {
+                            newPostings.computeIfAbsent(row.getTagName(), name -> new Roaring64Bitmap())
+                                    .addLong(row.getQuestionId());
+                            newTagsByQuestion.computeIfAbsent(row.getQuestionId(), id -> new HashSet<>())
+                                    .add(row.getTagName());
+                        }
+                    });
+            newPostings.values().forEach(Roaring64Bitmap::runOptimize);
+            newActive.runOptimize();
+
+            lock.writeLock().lock();
+            try {
+                postings = newPostings;
+                tagsByQuestion = newTagsByQuestion;
+                active = newActive;
+                // The load may predate these events, so apply them again on top
+                changedDuringRebuild.values().forEach(this::apply);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            log.info("Built tag filter index: {} tags over {} questions in {} ms",
+                    newPostings.size(), newActive.getLongCardinality(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild tag filter index, keeping the previous one: {}", e.getMessage());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        // The change is already committed; a failure here must not fail the request
+        try {
+            lock.writeLock().lock();
+            try {
+                apply(event);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.put(event.questionId(), event);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to update tag filter index for question {}: {}", event.questionId(), e.getMessage());
+        }
+    }
+
+    // Caller holds the write lock
+    private void apply(QuestionChangedEvent event) {
+        long questionId = event.questionId();
+        Set<String> previous = tagsByQuestion.getOrDefault(questionId, Set.of());
+        Set<String> current = event.active() ? Set.copyOf(event.tagNames()) : Set.of();
+
+        for (String tagName : previous) {
+            Roaring64Bitmap posting = postings.get(tagName);
+            if (posting != null && !current.contains(tagName)) {
+                posting.removeLong(questionId);
+                if (posting.isEmpty()) {
+                    postings.remove(tagName);
+                }
+            }
+        }
+        for (String tagName : current) {
+            if (!previous.contains(tagName)) {
+                postings.computeIfAbsent(tagName, name -> new Roaring64Bitmap()).addLong(questionId);
+            }
+        }
+
+        if (current.isEmpty()) {
+            tagsByQuestion.remove(questionId);
+        } else {
+            tagsByQuestion.put(questionId, current);
+        }
+        if (event.active()) {
+            active.addLong(questionId);
+        } else {
+            active.removeLong(questionId);
+        }
+    }
+
+    /**
+     * Ids of the active questions matching a tag expression.
+     *
+     * @throws IllegalArgumentException if the expression cannot be parsed
+     */
+    public Roaring64Bitmap evaluate(String expression) {
+        if (expression == null || expression.isBlank() || expression.length() > MAX_EXPRESSION_LENGTH) {
+            throw new IllegalArgumentException("Invalid tag expression");
+        }
+
+        lock.readLock().lock();
+        try {
+            return new Parser(expression).parse();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the active questions carrying at least one of the tags.
+     */
+    public Roaring64Bitmap anyOf(Collection<String> tagNames) {
+        Roaring64Bitmap result = new Roaring64Bitmap();
+        lock.readLock().lock();
+        try {
+            for (String tagName : tagNames) {
+                Roaring64Bitmap posting = postings.get(normalize(tagName));
+                if (posting != null) {
+                    result.or(posting);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Up to limit ids from the bitmap, highest (newest) first, starting below beforeId
+     * when given.
+     */
+    public static List<Long> newestFirst(Roaring64Bitmap ids, Long beforeId, int limit) {
+        long below = beforeId == null ? ids.getLongCardinality()
+                : beforeId <= 0 ? 0 : ids.rankLong(beforeId - 1);
+
+        List<Long> page = new ArrayList<>(limit);
+        for (long rank = below - 1; rank >= 0 && page.size() < limit; rank--) {
+            page.add(ids.select(rank));
+        }
+        return page;
+    }
+
+    // Operators work in place, so shared posting lists are copied before use
+    private static Roaring64Bitmap copyOf(Roaring64Bitmap bitmap) {
+        Roaring64Bitmap copy = new Roaring64Bitmap();
+        copy.or(bitmap);
+        return copy;
+    }
+
+    private static String normalize(String tagName) {
+        return tagName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Recursive-descent evaluator; the caller holds the read lock.
+     * <pre>
+     * or   := and (("OR" | "|" | ",") and)*
+     * and  := not (("AND" | "&amp;")? not)*
+     * not  := ("NOT" | "!" | "-") not | "(" or ")" | tag
+     * </pre>
+     */
+    private final class Parser {
+
+        private final String input;
+        private int position;
+
+        Parser(String input) {
+            this.input = input;
+        }
+
+        Roaring64Bitmap parse() {
+            Roaring64Bitmap result = parseOr();
+            skipWhitespace();
+            if (position < input.length()) {
+                throw error();
+            }
+            return result;
+        }
+
+        private Roaring64Bitmap parseOr() {
+            Roaring64Bitmap result = parseAnd();
+            while (acceptSymbol('|') || acceptSymbol(',') || acceptKeyword("OR")) {
+                result.or(parseAnd());
+            }
+            return result;
+        }
+
+        private Roaring64Bitmap parseAnd() {
+            Roaring64Bitmap result = parseNot();
+            while (true) {
+                if (acceptSymbol('&') || acceptKeyword("AND")) {
+                    result.and(parseNot());
+                } else if (startsOperand()) {
+                    result.and(parseNot());
+                } else {
+                    return result;
+                }
+            }
+        }
+
+        private Roaring64Bitmap parseNot() {
+            if (acceptSymbol('!') || acceptSymbol('-') || acceptKeyword("NOT")) {
+                Roaring64Bitmap result = copyOf(active);
+                result.andNot(parseNot());
+                return result;
+            }
+            if (acceptSymbol('(')) {
+                Roaring64Bitmap result = parseOr();
+                if (!acceptSymbol(')')) {
+                    throw error();
+                }
+                return result;
+            }
+
+            String tagName = readTag();
+            if (tagName.isEmpty()) {
+                throw error();
+            }
+            Roaring64Bitmap posting = postings.get(tagName);
+            return posting != null ? copyOf(posting) : new Roaring64Bitmap();
+        }
+
+        private boolean startsOperand() {
+            skipWhitespace();
+            if (position >= input.length()) {
+                return false;
+            }
+            char c = input.charAt(position);
+            if (c == '(' || c == '!' || c == '-') {
+                return true;
+            }
+            return isTagChar(c) && !peekKeyword("OR");
+        }
+
+        private boolean acceptSymbol(char symbol) {
+            skipWhitespace();
+            if (position < input.length() && input.charAt(position) == symbol) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            if (peekKeyword(keyword)) {
+                position += keyword.length();
+                return true;
+            }
+            return false;
+        }
+
+        private boolean peekKeyword(String keyword) {
+            skipWhitespace();
+            int end = position + keyword.length();
+            return input.regionMatches(true, position, keyword, 0, keyword.length())
+                    && (end == input.length() || !isTagChar(input.charAt(end)));
+        }
+
+        private String readTag() {
+            skipWhitespace();
+            int start = position;
+            while (position < input.length() && isTagChar(input.charAt(position))) {
+                position++;
+            }
+            return normalize(input.substring(start, position));
+        }
+
+        // Tag names may contain '-' (spring-boot) but not start with it, where it means NOT
+        private boolean isTagChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '-' || c == '.' || c == '+' || c == '#' || c == '_';
+        }
+
+        private void skipWhitespace() {
+            while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error() {
+            return new IllegalArgumentException("Invalid tag expression at position " + position);
+        }
+    }
+}
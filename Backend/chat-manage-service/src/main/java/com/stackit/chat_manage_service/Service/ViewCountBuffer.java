@@ -0,0 +1,127 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Repository.QuestionJdbcRepository;
+import com.stackit.chat_manage_service.Repository.QuestionJdbcRepository.ViewCountDelta;
+import com.stackit.chat_manage_service.Utills.LongCounterMap;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for question view counts.
+ * <p>
+ * Viewing a question only increments an in-memory counter, so read requests never write
+ * to the questions table. Counters are kept in lock-striped primitive maps keyed by
+ * question id, so the per-view path neither boxes the id nor allocates a counter. Summed
+ * increments are flushed to the database in one JDBC batch every few seconds and once more
+ * on graceful shutdown.
+ */
+@Component
+@Slf4j
+public class ViewCountBuffer {
+
+    private final QuestionJdbcRepository questionJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    @Value("${app.question.views.batch-size:500}")
+    private int batchSize;
+
+    public ViewCountBuffer(QuestionJdbcRepository questionJdbcRepository,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${app.question.views.stripes:64}") int stripeCount) {
+        this.questionJdbcRepository = questionJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        LongCounterMap views = new LongCounterMap();
+    }
+
+    public void record(long questionId) {
+        add(questionId, 1);
+    }
+
+    /**
+     * Views of a question that have not been flushed yet.
+     */
+    public long pendingFor(long questionId) {
+        Stripe stripe = stripeFor(questionId);
+        stripe.lock.lock();
+        try {
+            return stripe.views.get(questionId);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.question.views.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        // Each stripe hands its whole map over and starts an empty one, so questions with
+        // no views since the previous flush no longer take up a slot
+        List<ViewCountDelta> deltas = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            LongCounterMap drained;
+            stripe.lock.lock();
+            try {
+                if (stripe.views.isEmpty()) {
+                    continue;
+                }
+                drained = stripe.views;
+                stripe.views = new LongCounterMap();
+            } finally {
+                stripe.lock.unlock();
+            }
+            drained.forEach((questionId, views) -> deltas.add(new ViewCountDelta(questionId, views)));
+        }
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    questionJdbcRepository.batchIncrementViewCounts(deltas, batchSize));
+            log.debug("Flushed view counts for {} questions", deltas.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush view counts for {} questions, will retry: {}", deltas.size(), e.getMessage());
+            deltas.forEach(delta -> add(delta.questionId(), delta.views()));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing pending view counts before shutdown");
+        flush();
+    }
+
+    private void add(long questionId, long views) {
+        Stripe stripe = stripeFor(questionId);
+        stripe.lock.lock();
+        try {
+            stripe.views.add(questionId, views);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(long questionId) {
+        long h = questionId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & stripeMask];
+    }
+}
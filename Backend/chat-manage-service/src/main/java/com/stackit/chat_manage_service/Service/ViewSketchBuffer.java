@@ -0,0 +1,173 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Entity.QuestionViewSketch;
+import com.stackit.chat_manage_service.Repository.QuestionJdbcRepository;
+import com.stackit.chat_manage_service.Repository.QuestionJdbcRepository.ViewSketchRow;
+import com.stackit.chat_manage_service.Repository.QuestionViewSketchRepository;
+import com.stackit.chat_manage_service.Utills.HashUtils;
+import com.stackit.chat_manage_service.Utills.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unique-viewer estimation for questions.
+ * <p>
+ * Each view offers the viewer's identity to an in-memory HyperLogLog sketch for the
+ * question. Sketches are flushed on the view count schedule by merging them into the
+ * stored sketch under a row lock, so nodes can flush the same question in any order.
+ * Re-offering an identity never changes a sketch, so a flush that fails is simply merged
+ * back and retried.
+ * <p>
+ * Stored sketches of recently viewed questions are cached, so estimates are served from
+ * memory. A flush refreshes the cached sketch of every question it wrote. The cache is
+ * bounded by app.question.views.sketch-cache-size; the least recently used question is
+ * evicted first.
+ */
+@Component
+@Slf4j
+public class ViewSketchBuffer {
+
+    private final QuestionViewSketchRepository sketchRepository;
+    private final QuestionJdbcRepository questionJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Sketch updates run inside compute, so a flush that removes a sketch never misses an
+    // identity offered to it concurrently
+    private final ConcurrentHashMap<Long, HyperLogLog> pending = new ConcurrentHashMap<>();
+
+    // Guarded by itself. Entries only grow by merging, so a load that lands after a flush
+    // refreshed the entry cannot drop the flushed identities
+    private final Map<Long, HyperLogLog> storedSketches;
+
+    @Value("${app.question.views.batch-size:500}")
+    private int batchSize;
+
+    public ViewSketchBuffer(QuestionViewSketchRepository sketchRepository,
+                            QuestionJdbcRepository questionJdbcRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${app.question.views.sketch-cache-size:10000}") int cacheSize) {
+        this.sketchRepository = sketchRepository;
+        this.questionJdbcRepository = questionJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.storedSketches = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, HyperLogLog> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Identity of a viewer: the user id when signed in, otherwise the client address and
+     * user agent.
+     */
+    public static long fingerprint(Long userId, String clientAddress, String userAgent) {
+        if (userId != null) {
+            return HashUtils.hash64("u:" + userId);
+        }
+        return HashUtils.hash64("a:" + clientAddress + "|" + userAgent);
+    }
+
+    public void record(Long questionId, long fingerprint) {
+        pending.compute(questionId, (id, sketch) -> {
+            HyperLogLog updated = sketch != null ? sketch : new HyperLogLog();
+            updated.offer(fingerprint);
+            return updated;
+        });
+    }
+
+    /**
+     * Estimated number of distinct viewers, including views not flushed yet. Only a
+     * question missing from the cache reads its stored sketch.
+     */
+    public long uniqueViewCount(Long questionId) {
+        HyperLogLog merged = new HyperLogLog();
+        boolean cached;
+        synchronized (storedSketches) {
+            HyperLogLog sketch = storedSketches.get(questionId);
+            cached = sketch != null;
+            if (cached) {
+                merged.merge(sketch);
+            }
+        }
+        if (!cached) {
+            HyperLogLog loaded = sketchRepository.findById(questionId)
+                    .map(row -> HyperLogLog.fromBytes(row.getRegisters()))
+                    .orElseGet(HyperLogLog::new);
+            merged.merge(loaded);
+            cache(questionId, loaded);
+        }
+        pending.computeIfPresent(questionId, (id, sketch) -> {
+            merged.merge(sketch);
+            return sketch;
+        });
+        return merged.estimate();
+    }
+
+    @Scheduled(fixedDelayString = "${app.question.views.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<Long, HyperLogLog> drained = new HashMap<>();
+        for (Long questionId : pending.keySet()) {
+            HyperLogLog sketch = pending.remove(questionId);
+            if (sketch != null) {
+                drained.put(questionId, sketch);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<Long, HyperLogLog> written = transactionTemplate.execute(status -> {
+                Map<Long, HyperLogLog> merged = new HashMap<>(drained.size());
+                drained.forEach((questionId, sketch) -> {
+                    HyperLogLog copy = new HyperLogLog();
+                    copy.merge(sketch);
+                    merged.put(questionId, copy);
+                });
+                for (QuestionViewSketch stored : sketchRepository.findAllForUpdate(drained.keySet())) {
+                    merged.get(stored.getQuestionId()).merge(HyperLogLog.fromBytes(stored.getRegisters()));
+                }
+
+                List<ViewSketchRow> rows = new ArrayList<>(merged.size());
+                merged.forEach((questionId, sketch) -> rows.add(new ViewSketchRow(questionId, sketch.toBytes())));
+                questionJdbcRepository.batchUpsertViewSketches(rows, batchSize);
+                return merged;
+            });
+            written.forEach(this::cache);
+            log.debug("Flushed viewer sketches for {} questions", drained.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush viewer sketches for {} questions, will retry: {}", drained.size(), e.getMessage());
+            drained.forEach((questionId, sketch) -> pending.merge(questionId, sketch, (current, restored) -> {
+                current.merge(restored);
+                return current;
+            }));
+        }
+    }
+
+    private void cache(Long questionId, HyperLogLog sketch) {
+        synchronized (storedSketches) {
+            storedSketches.merge(questionId, sketch, (current, loaded) -> {
+                current.merge(loaded);
+                return current;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing pending viewer sketches before shutdown");
+        flush();
+    }
+}
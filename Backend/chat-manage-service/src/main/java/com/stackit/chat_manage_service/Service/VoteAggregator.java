@@ -0,0 +1,279 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Entity.Answer;
+import com.stackit.chat_manage_service.Repository.VoteJdbcRepository;
+import com.stackit.chat_manage_service.Repository.VoteJdbcRepository.StoredVoteCounters;
+import com.stackit.chat_manage_service.Repository.VoteJdbcRepository.VoteCounterDelta;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind aggregator for answer vote counters.
+ * <p>
+ * Vote rows are still written by VoteService inside the request transaction, but the
+ * counter columns on answers are no longer touched there. Committed score changes are
+ * absorbed into striped in-memory tallies keyed by answer id, current scores are served
+ * from those tallies, and merged deltas are flushed to the database in JDBC batches.
+ * Deltas that were not flushed before a crash are recovered on startup from the vote
+ * ledger and the votes table.
+ * <p>
+ * Answer ranking and its cursors read the stored score column, which trails the tallies
+ * by up to one flush interval. Until the next flush, a page can show an answer with a
+ * higher score below one it outranks; the order catches up once the delta is flushed.
+ */
+@Component
+@DependsOn("dataMigrationRunner")
+@Slf4j
+public class VoteAggregator implements SmartInitializingSingleton {
+
+    private final VoteJdbcRepository voteJdbcRepository;
+    private final VoteReconciliationService voteReconciliationService;
+    private final VoteLedgerReplayService voteLedgerReplayService;
+    private final TransactionTemplate transactionTemplate;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Value("${app.vote.aggregator.batch-size:500}")
+    private int batchSize;
+
+    public VoteAggregator(VoteJdbcRepository voteJdbcRepository,
+                          VoteReconciliationService voteReconciliationService,
+                          VoteLedgerReplayService voteLedgerReplayService,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${app.vote.aggregator.stripes:64}") int stripeCount) {
+        this.voteJdbcRepository = voteJdbcRepository;
+        this.voteReconciliationService = voteReconciliationService;
+        this.voteLedgerReplayService = voteLedgerReplayService;
+        this.transactionTemplate = transactionTemplate;
+
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    /**
+     * Current vote counters for an answer, ready to be returned to clients. The sequence
+     * orders counts produced by absorb so that readers can discard stale ones; counts read
+     * from the stored columns carry sequence 0.
+     */
+    public record VoteCounts(int upvotes, int downvotes, long sequence) {
+        public int score() {
+            return upvotes - downvotes;
+        }
+    }
+
+    private static final class Tally {
+        int upvotes;
+        int downvotes;
+        int pendingUpvotes;
+        int pendingDownvotes;
+        boolean touched;
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, Tally> tallies = new HashMap<>();
+    }
+
+    /**
+     * Crash recovery: deltas that were still in memory when the previous process died
+     * never reached the answers table. The counters are rebuilt from the vote ledger and
+     * then reconciled against the votes table, which wins wherever the two disagree, for
+     * example after a failed ledger append. Both run before the web server starts taking
+     * votes.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        log.info("Rebuilding answer vote counters from the vote ledger");
+        voteLedgerReplayService.rebuild();
+        voteReconciliationService.reconcileVoteCounters();
+    }
+
+    /**
+     * Absorb a committed counter change. The tally of an answer without one is seeded from
+     * its stored counters, read under the stripe lock: with no tally every earlier delta of
+     * the answer has been flushed, and none can be absorbed or evicted during the read.
+     */
+    public VoteCounts absorb(Long answerId, int upvoteDelta, int downvoteDelta) {
+        Stripe stripe = stripeFor(answerId);
+        stripe.lock.lock();
+        try {
+            Tally tally = stripe.tallies.get(answerId);
+            if (tally == null) {
+                StoredVoteCounters stored = voteJdbcRepository.findVoteCounters(answerId);
+                tally = new Tally();
+                tally.upvotes = stored.upvotes();
+                tally.downvotes = stored.downvotes();
+                stripe.tallies.put(answerId, tally);
+            }
+            tally.upvotes += upvoteDelta;
+            tally.downvotes += downvoteDelta;
+            tally.pendingUpvotes += upvoteDelta;
+            tally.pendingDownvotes += downvoteDelta;
+            tally.touched = true;
+            return new VoteCounts(tally.upvotes, tally.downvotes, sequence.incrementAndGet());
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Current counters for an answer: the in-memory tally when one exists,
+     * otherwise the counters stored on the entity.
+     */
+    public VoteCounts countsFor(Answer answer) {
+        return countsFor(answer.getId(), answer.getUpvoteCount(), answer.getDownvoteCount());
+    }
+
+    public VoteCounts countsFor(Long answerId, int storedUpvotes, int storedDownvotes) {
+        Stripe stripe = stripeFor(answerId);
+        stripe.lock.lock();
+        try {
+            Tally tally = stripe.tallies.get(answerId);
+            if (tally != null) {
+                return new VoteCounts(tally.upvotes, tally.downvotes, 0);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        return new VoteCounts(storedUpvotes, storedDownvotes, 0);
+    }
+
+    @Scheduled(fixedDelayString = "${app.vote.aggregator.flush-interval-ms:1000}")
+    public void flush() {
+        List<VoteCounterDelta> deltas = drainPending();
+        if (!deltas.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        voteJdbcRepository.batchApplyVoteDeltas(deltas, batchSize));
+                log.debug("Flushed vote deltas for {} answers", deltas.size());
+            } catch (RuntimeException e) {
+                log.error("Failed to flush vote deltas for {} answers, will retry: {}", deltas.size(), e.getMessage());
+                restorePending(deltas);
+                return;
+            }
+        }
+        evictIdle();
+    }
+
+    /**
+     * Periodic repair of the stored counters. Every stripe is locked for the whole pass, so
+     * no delta can be absorbed between draining the pending deltas and recomputing the
+     * counters from the votes table. The tallies are then dropped, so reads fall back to
+     * the repaired columns instead of serving the pre-repair counts.
+     */
+    @Scheduled(cron = "${app.vote.reconcile-cron:0 0 3 * * *}")
+    public void reconcile() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+        try {
+            List<VoteCounterDelta> deltas = drainPending();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!deltas.isEmpty()) {
+                        voteJdbcRepository.batchApplyVoteDeltas(deltas, batchSize);
+                    }
+                    voteReconciliationService.reconcileVoteCounters();
+                });
+            } catch (RuntimeException e) {
+                log.error("Failed to reconcile vote counters, will retry on the next run: {}", e.getMessage());
+                restorePending(deltas);
+                return;
+            }
+            for (Stripe stripe : stripes) {
+                stripe.tallies.clear();
+            }
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].lock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing pending vote deltas before shutdown");
+        flush();
+    }
+
+    private List<VoteCounterDelta> drainPending() {
+        List<VoteCounterDelta> deltas = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (Map.Entry<Long, Tally> entry : stripe.tallies.entrySet()) {
+                    Tally tally = entry.getValue();
+                    if (tally.pendingUpvotes != 0 || tally.pendingDownvotes != 0) {
+                        deltas.add(new VoteCounterDelta(entry.getKey(), tally.pendingUpvotes, tally.pendingDownvotes));
+                        tally.pendingUpvotes = 0;
+                        tally.pendingDownvotes = 0;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return deltas;
+    }
+
+    private void restorePending(List<VoteCounterDelta> deltas) {
+        for (VoteCounterDelta delta : deltas) {
+            Stripe stripe = stripeFor(delta.answerId());
+            stripe.lock.lock();
+            try {
+                Tally tally = stripe.tallies.get(delta.answerId());
+                tally.pendingUpvotes += delta.upvoteDelta();
+                tally.pendingDownvotes += delta.downvoteDelta();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Drop tallies that are fully flushed and saw no votes since the previous flush;
+     * their stored columns are now authoritative again.
+     */
+    private void evictIdle() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Iterator<Tally> iterator = stripe.tallies.values().iterator();
+                while (iterator.hasNext()) {
+                    Tally tally = iterator.next();
+                    if (tally.pendingUpvotes == 0 && tally.pendingDownvotes == 0 && !tally.touched) {
+                        iterator.remove();
+                    } else {
+                        tally.touched = false;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private Stripe stripeFor(Long answerId) {
+        long h = answerId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & stripeMask];
+    }
+}
@@ -0,0 +1,146 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Entity.enums.VoteType;
+import com.stackit.chat_manage_service.Repository.Projection.AnswerVoter;
+import com.stackit.chat_manage_service.Repository.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory voted-by index: for each cached answer, one compressed bitmap of upvoter ids
+ * and one of downvoter ids.
+ * <p>
+ * An answer's bitmaps are loaded from the votes table the first time it is looked up, so
+ * membership checks for cached answers never reach the database. VoteService applies
+ * every committed vote transition to the cached bitmaps. Commit callbacks of concurrent
+ * transactions can run in any order, so a transition is applied only when the user's
+ * cached vote is still its starting state; a mismatch evicts the answer and the next
+ * lookup reloads it. The number of cached answers is bounded by
+ * app.vote.bitmap.max-answers; the least recently used answer is evicted first.
+ */
+@Component
+@Slf4j
+public class VoteBitmapIndex {
+
+    private final VoteRepository voteRepository;
+    private final TransactionTemplate loadTransaction;
+    private final Map<Long, Voters> cache;
+
+    public VoteBitmapIndex(VoteRepository voteRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.vote.bitmap.max-answers:10000}") int maxAnswers) {
+        this.voteRepository = voteRepository;
+
+        // Loads must see every vote committed before them, whatever snapshot the caller's
+        // transaction already holds
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        loadTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        loadTransaction.setReadOnly(true);
+
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Voters> eldest) {
+                return size() > maxAnswers;
+            }
+        };
+    }
+
+    /**
+     * Bitmaps for one answer, filled by the first lookup.
+     */
+    private static final class Voters {
+        final Roaring64Bitmap upvoters = new Roaring64Bitmap();
+        final Roaring64Bitmap downvoters = new Roaring64Bitmap();
+        boolean loaded;
+
+        void apply(long userId, VoteType voteType) {
+            upvoters.removeLong(userId);
+            downvoters.removeLong(userId);
+            if (voteType == VoteType.UPVOTE) {
+                upvoters.addLong(userId);
+            } else if (voteType == VoteType.DOWNVOTE) {
+                downvoters.addLong(userId);
+            }
+        }
+
+        VoteType voteOf(long userId) {
+            if (upvoters.contains(userId)) {
+                return VoteType.UPVOTE;
+            }
+            return downvoters.contains(userId) ? VoteType.DOWNVOTE : null;
+        }
+    }
+
+    public boolean isCached(Long answerId) {
+        synchronized (cache) {
+            Voters voters = cache.get(answerId);
+            return voters != null && voters.loaded;
+        }
+    }
+
+    /**
+     * The user's current vote on the answer, or null if they have not voted.
+     */
+    public VoteType voteOf(Long answerId, Long userId) {
+        Voters voters;
+        synchronized (cache) {
+            voters = cache.computeIfAbsent(answerId, id -> new Voters());
+        }
+
+        synchronized (voters) {
+            if (voters.loaded) {
+                return voters.voteOf(userId);
+            }
+        }
+
+        // Read outside the locks, in its own read-committed transaction. A vote committed
+        // before this read is seen by it. A commit callback that finds the entry still
+        // loading removes it, so a load that may have missed that vote is not kept
+        List<AnswerVoter> rows = loadTransaction.execute(status -> voteRepository.findVotersByAnswerId(answerId));
+
+        synchronized (cache) {
+            synchronized (voters) {
+                if (!voters.loaded) {
+                    for (AnswerVoter row : rows) {
+                        voters.apply(row.getUserId(), row.getVoteType());
+                    }
+                    voters.loaded = cache.get(answerId) == voters;
+                    log.debug("Loaded voted-by bitmaps for answer {} ({} votes)", answerId, rows.size());
+                }
+                return voters.voteOf(userId);
+            }
+        }
+    }
+
+    /**
+     * Applies a committed vote transition; a null type stands for "no vote". Transitions of
+     * one user on one answer commit in order, but their callbacks may not run in order, so
+     * one whose starting state does not match the cached vote evicts the answer instead.
+     */
+    public void apply(Long answerId, Long userId, VoteType from, VoteType to) {
+        synchronized (cache) {
+            Voters voters = cache.get(answerId);
+            if (voters == null) {
+                return;
+            }
+
+            synchronized (voters) {
+                if (voters.loaded && voters.voteOf(userId) == from) {
+                    voters.apply(userId, to);
+                    return;
+                }
+            }
+            cache.remove(answerId);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.stackit.chat_manage_service.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces vote-change broadcasts per answer.
+ * <p>
+ * Instead of one STOMP frame per vote, score changes are buffered per answer id and only
+ * the latest score is published once per window (app.websocket.vote-coalesce-window-ms).
+ */
+@Component
+@Slf4j
+public class VoteBroadcastCoalescer {
+
+    private final WebSocketService webSocketService;
+    private final Map<Long, PendingScore> pending = new ConcurrentHashMap<>();
+
+    private final Counter submittedCounter;
+    private final Counter sentCounter;
+    private final Counter savedCounter;
+
+    public VoteBroadcastCoalescer(WebSocketService webSocketService, MeterRegistry meterRegistry) {
+        this.webSocketService = webSocketService;
+        this.submittedCounter = Counter.builder("stackit.votes.broadcast.submitted")
+                .description("Vote changes submitted for broadcast")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("stackit.votes.broadcast.sent")
+                .description("Vote-change frames actually published")
+                .register(meterRegistry);
+        this.savedCounter = Counter.builder("stackit.votes.broadcast.saved")
+                .description("Vote-change frames avoided by coalescing")
+                .register(meterRegistry);
+    }
+
+    private record PendingScore(int score, long sequence, int updates) {
+    }
+
+    /**
+     * Buffer a new score for an answer. Scores with an older sequence than the buffered
+     * one are ignored, so the frame that goes out is always the most recent state.
+     */
+    public void submit(Long answerId, int score, long sequence) {
+        submittedCounter.increment();
+        pending.merge(answerId, new PendingScore(score, sequence, 1), (current, update) ->
+                update.sequence() >= current.sequence()
+                        ? new PendingScore(update.score(), update.sequence(), current.updates() + 1)
+                        : new PendingScore(current.score(), current.sequence(), current.updates() + 1));
+    }
+
+    @Scheduled(fixedRateString = "${app.websocket.vote-coalesce-window-ms:150}")
+    public void flush() {
+        for (Long answerId : pending.keySet()) {
+            PendingScore latest = pending.remove(answerId);
+            if (latest == null) {
+                continue;
+            }
+
+            try {
+                webSocketService.broadcastVoteChange(answerId, latest.score());
+                sentCounter.increment();
+                savedCounter.increment(latest.updates() - 1);
+            } catch (RuntimeException e) {
+                log.error("Failed to broadcast vote change for answer {}: {}", answerId, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing {} pending vote broadcasts before shutdown", pending.size());
+        flush();
+    }
+}
@@ -0,0 +1,183 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Entity.enums.VoteAction;
+import com.stackit.chat_manage_service.Entity.enums.VoteType;
+import com.stackit.chat_manage_service.Repository.AnswerVoteSnapshotRepository;
+import com.stackit.chat_manage_service.Repository.VoteJdbcRepository;
+import com.stackit.chat_manage_service.Repository.VoteJdbcRepository.VoteCounterTotals;
+import com.stackit.chat_manage_service.Repository.VoteJdbcRepository.VoteEventRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+/**
+ * Rebuilds per-answer vote counters and per-user reputation totals from the vote ledger:
+ * compacted snapshots plus the events recorded after the last compaction. Event ranges
+ * are read and folded in parallel on a small dedicated pool, so rebuild time depends on
+ * the size of the uncompacted tail rather than on the size of the votes table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VoteLedgerReplayService {
+
+    private final VoteJdbcRepository voteJdbcRepository;
+    private final AnswerVoteSnapshotRepository snapshotRepository;
+    private final VoteLedgerService voteLedgerService;
+
+    @Value("${app.vote.ledger.replay-chunk-size:50000}")
+    private int chunkSize;
+
+    @Value("${app.vote.ledger.replay-threads:4}")
+    private int replayThreads;
+
+    @Value("${app.vote.aggregator.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.vote.reputation.upvote:10}")
+    private int upvoteReputation;
+
+    @Value("${app.vote.reputation.downvote:-2}")
+    private int downvoteReputation;
+
+    public record ReplayResult(List<VoteCounterTotals> answerTotals,
+                               Map<Long, Integer> reputationByUserId,
+                               long eventsReplayed) {
+    }
+
+    private static final class Totals {
+        long authorId;
+        int upvotes;
+        int downvotes;
+        long events;
+
+        void apply(VoteEventRow event) {
+            authorId = event.authorId();
+            int sign = event.action() == VoteAction.RETRACT ? -1 : 1;
+            if (event.voteType() == VoteType.UPVOTE) {
+                upvotes += sign;
+                if (event.action() == VoteAction.FLIP) {
+                    downvotes--;
+                }
+            } else {
+                downvotes += sign;
+                if (event.action() == VoteAction.FLIP) {
+                    upvotes--;
+                }
+            }
+            events++;
+        }
+
+        Totals merge(Totals other) {
+            if (other.authorId != 0) {
+                authorId = other.authorId;
+            }
+            upvotes += other.upvotes;
+            downvotes += other.downvotes;
+            events += other.events;
+            return this;
+        }
+    }
+
+    /**
+     * Replay the ledger into memory without touching the answers or users tables.
+     * Reputation is the upvotes and downvotes on a user's answers, weighted by
+     * app.vote.reputation.*.
+     */
+    @Transactional(readOnly = true)
+    public ReplayResult replay() {
+        Map<Long, Totals> byAnswer = new ConcurrentHashMap<>();
+        Map<Long, Integer> reputation = new ConcurrentHashMap<>();
+
+        voteJdbcRepository.forEachSnapshot(snapshot -> {
+            Totals totals = new Totals();
+            totals.authorId = snapshot.authorId();
+            totals.upvotes = snapshot.upvotes();
+            totals.downvotes = snapshot.downvotes();
+            byAnswer.put(snapshot.answerId(), totals);
+            reputation.merge(snapshot.authorId(), reputationOf(totals), Integer::sum);
+        });
+
+        long watermark = snapshotRepository.findWatermark();
+        long maxEventId = voteJdbcRepository.findMaxVoteEventId();
+        long chunks = (maxEventId - watermark + chunkSize - 1) / chunkSize;
+
+        // Each chunk folds its own id range locally, then merges into the shared maps.
+        // Counter and reputation deltas commute, so the merge order does not matter. The
+        // ranges below maxEventId are append-only, so the workers need no shared snapshot
+        // and read outside the caller's transaction, at most replayThreads at a time.
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, replayThreads));
+        try {
+            List<Future<?>> folds = LongStream.range(0, Math.max(chunks, 0))
+                    .<Future<?>>mapToObj(chunk -> executor.submit(() -> {
+                        long from = watermark + chunk * chunkSize;
+                        long to = Math.min(from + chunkSize, maxEventId);
+
+                        Map<Long, Totals> local = new HashMap<>();
+                        voteJdbcRepository.forEachVoteEvent(from, to, event ->
+                                local.computeIfAbsent(event.answerId(), id -> new Totals()).apply(event));
+                        local.forEach((answerId, totals) -> {
+                            reputation.merge(totals.authorId, reputationOf(totals), Integer::sum);
+                            byAnswer.merge(answerId, totals, Totals::merge);
+                        });
+                    }))
+                    .toList();
+            for (Future<?> fold : folds) {
+                fold.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Vote ledger replay was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Vote ledger replay failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<VoteCounterTotals> answerTotals = new ArrayList<>(byAnswer.size());
+        long events = 0;
+        for (Map.Entry<Long, Totals> entry : byAnswer.entrySet()) {
+            Totals totals = entry.getValue();
+            answerTotals.add(new VoteCounterTotals(entry.getKey(), totals.authorId, totals.upvotes, totals.downvotes));
+            events += totals.events;
+        }
+
+        return new ReplayResult(answerTotals, reputation, events);
+    }
+
+    /**
+     * Replay the ledger and write the results back to the answer counters. Reputation
+     * totals are returned but not written, since users.reputation_score is maintained
+     * elsewhere.
+     */
+    @Transactional
+    public ReplayResult rebuild() {
+        long start = System.currentTimeMillis();
+        voteLedgerService.bootstrapIfEmpty();
+
+        ReplayResult result = replay();
+        voteJdbcRepository.batchSetVoteCounters(result.answerTotals(), batchSize);
+
+        log.info("Rebuilt vote counters for {} answers and reputation totals for {} users from {} ledger events in {} ms",
+                result.answerTotals().size(), result.reputationByUserId().size(),
+                result.eventsReplayed(), System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private int reputationOf(Totals totals) {
+        return totals.upvotes * upvoteReputation + totals.downvotes * downvoteReputation;
+    }
+}
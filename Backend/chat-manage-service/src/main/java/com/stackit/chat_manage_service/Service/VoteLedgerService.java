@@ -0,0 +1,88 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Entity.VoteEvent;
+import com.stackit.chat_manage_service.Entity.enums.VoteAction;
+import com.stackit.chat_manage_service.Entity.enums.VoteType;
+import com.stackit.chat_manage_service.Repository.AnswerVoteSnapshotRepository;
+import com.stackit.chat_manage_service.Repository.VoteEventRepository;
+import com.stackit.chat_manage_service.Repository.VoteJdbcRepository;
+import com.stackit.chat_manage_service.Repository.VoteJdbcRepository.VoteEventRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Append-only ledger of vote changes.
+ * <p>
+ * VoteService appends one event per cast, flip or retract in the same transaction as the
+ * vote row. Compaction periodically folds events older than the retention window into
+ * per-answer snapshots and deletes them, which keeps ledger replay time bounded.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class VoteLedgerService {
+
+    private final VoteEventRepository voteEventRepository;
+    private final AnswerVoteSnapshotRepository snapshotRepository;
+    private final VoteJdbcRepository voteJdbcRepository;
+
+    @Value("${app.vote.ledger.retain-days:7}")
+    private int retainDays;
+
+    @Value("${app.vote.aggregator.batch-size:500}")
+    private int batchSize;
+
+    public void append(Long answerId, Long voterId, Long authorId, VoteAction action, VoteType voteType) {
+        voteEventRepository.save(VoteEvent.builder()
+                .answerId(answerId)
+                .voterId(voterId)
+                .authorId(authorId)
+                .action(action)
+                .voteType(voteType)
+                .build());
+    }
+
+    /**
+     * Append several events for one voter with a single batched insert.
+     */
+    public void appendAll(Long voterId, List<VoteEventRow> events) {
+        voteJdbcRepository.batchInsertVoteEvents(voterId, events, batchSize);
+    }
+
+    /**
+     * Votes cast before the ledger existed have no events. The first time the ledger runs
+     * on a database with existing votes, fold them into snapshots so replay starts from
+     * the right totals.
+     */
+    public void bootstrapIfEmpty() {
+        if (snapshotRepository.count() > 0 || voteEventRepository.count() > 0) {
+            return;
+        }
+
+        int seeded = snapshotRepository.seedFromVotes();
+        log.info("Seeded vote ledger snapshots for {} answers from existing votes", seeded);
+    }
+
+    @Scheduled(cron = "${app.vote.ledger.compaction-cron:0 30 3 * * *}")
+    public void compact() {
+        long watermark = snapshotRepository.findWatermark();
+        long foldThrough = voteEventRepository.findLastEventIdBefore(LocalDateTime.now().minusDays(retainDays));
+
+        if (foldThrough <= watermark) {
+            log.info("Vote ledger compaction: nothing older than {} days to fold", retainDays);
+            return;
+        }
+
+        snapshotRepository.foldEvents(watermark, foldThrough);
+        int events = voteEventRepository.deleteThrough(foldThrough);
+        log.info("Vote ledger compaction folded {} events into snapshots (through event {})", events, foldThrough);
+    }
+}
@@ -0,0 +1,168 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Exception.RateLimitExceededException;
+import com.stackit.chat_manage_service.Payload.Request.BatchVoteRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory token-bucket limiter for the vote endpoints, keyed by user id and by answer id.
+ * <p>
+ * Each bucket is a single AtomicLong holding the time at which the bucket will be full
+ * again. Taking a token pushes that time forward by one refill interval; the request is
+ * allowed as long as the bucket would not need more than the burst size to cover it.
+ * Updates are plain compare-and-set loops, so the hot path takes no locks.
+ */
+@Component
+@Slf4j
+public class VoteRateLimiter {
+
+    private final Limit userLimit;
+    private final Limit answerLimit;
+    private final Counter userThrottledCounter;
+    private final Counter answerThrottledCounter;
+
+    public VoteRateLimiter(MeterRegistry meterRegistry,
+                           @Value("${app.vote.rate-limit.user.burst:100}") int userBurst,
+                           @Value("${app.vote.rate-limit.user.refill-per-second:2}") double userRefillPerSecond,
+                           @Value("${app.vote.rate-limit.answer.burst:200}") int answerBurst,
+                           @Value("${app.vote.rate-limit.answer.refill-per-second:50}") double answerRefillPerSecond) {
+        if (userBurst < BatchVoteRequest.MAX_VOTES) {
+            throw new IllegalStateException("app.vote.rate-limit.user.burst must allow a full batch of "
+                    + BatchVoteRequest.MAX_VOTES + " votes");
+        }
+        this.userLimit = new Limit(userBurst, userRefillPerSecond);
+        this.answerLimit = new Limit(answerBurst, answerRefillPerSecond);
+        this.userThrottledCounter = Counter.builder("stackit.votes.throttled")
+                .description("Vote requests rejected by the rate limiter")
+                .tag("scope", "user")
+                .register(meterRegistry);
+        this.answerThrottledCounter = Counter.builder("stackit.votes.throttled")
+                .description("Vote requests rejected by the rate limiter")
+                .tag("scope", "answer")
+                .register(meterRegistry);
+    }
+
+    private static final class Limit {
+        final long intervalNanos;
+        final long burstNanos;
+        final Map<Long, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+        Limit(int burst, double refillPerSecond) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+            this.burstNanos = intervalNanos * burst;
+        }
+
+        /**
+         * Takes the tokens, returning 0 when allowed or the nanoseconds to wait otherwise.
+         */
+        long tryAcquire(Long key, long now, int tokens) {
+            AtomicLong fullAt = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + intervalNanos * tokens;
+                long debt = next - now;
+                if (debt > burstNanos) {
+                    return debt - burstNanos;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * The nanoseconds to wait before one token could be taken, without taking it.
+         */
+        long waitFor(Long key, long now) {
+            AtomicLong fullAt = buckets.get(key);
+            long debt = (fullAt == null ? now : Math.max(fullAt.get(), now)) + intervalNanos - now;
+            return Math.max(0, debt - burstNanos);
+        }
+
+        /**
+         * Gives back tokens taken by a request that was rejected further on.
+         */
+        void release(Long key, int tokens) {
+            AtomicLong fullAt = buckets.get(key);
+            if (fullAt != null) {
+                fullAt.addAndGet(-intervalNanos * tokens);
+            }
+        }
+
+        void evictFull(long now) {
+            buckets.values().removeIf(fullAt -> fullAt.get() <= now);
+        }
+    }
+
+    /**
+     * Checks a single vote by a user on an answer.
+     */
+    public void check(Long userId, Long answerId) {
+        check(userId, List.of(answerId));
+    }
+
+    /**
+     * Checks a batch of votes, one answer id per vote: every vote takes a token from the
+     * user, and each distinct answer gives one token. All answer buckets are checked
+     * before anything is taken, and tokens taken before a rejection are given back.
+     */
+    public void check(Long userId, List<Long> answerIds) {
+        long now = System.nanoTime();
+        LinkedHashSet<Long> answers = new LinkedHashSet<>(answerIds);
+        for (Long answerId : answers) {
+            long waitNanos = answerLimit.waitFor(answerId, now);
+            if (waitNanos > 0) {
+                throw answerThrottled(waitNanos);
+            }
+        }
+
+        long waitNanos = userLimit.tryAcquire(userId, now, answerIds.size());
+        if (waitNanos > 0) {
+            userThrottledCounter.increment();
+            throw new RateLimitExceededException("Too many votes, please slow down",
+                    TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+        }
+
+        // A concurrent request can still drain an answer bucket after the check above
+        List<Long> taken = new ArrayList<>(answers.size());
+        for (Long answerId : answers) {
+            waitNanos = answerLimit.tryAcquire(answerId, now, 1);
+            if (waitNanos > 0) {
+                taken.forEach(id -> answerLimit.release(id, 1));
+                userLimit.release(userId, answerIds.size());
+                throw answerThrottled(waitNanos);
+            }
+            taken.add(answerId);
+        }
+    }
+
+    private RateLimitExceededException answerThrottled(long waitNanos) {
+        answerThrottledCounter.increment();
+        return new RateLimitExceededException("This answer is receiving too many votes, please try again shortly",
+                TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+    }
+
+    /**
+     * Buckets that have refilled completely carry no state, so drop them to keep the maps
+     * bounded by the number of recently active users and answers.
+     */
+    @Scheduled(fixedDelayString = "${app.vote.rate-limit.evict-interval-ms:60000}")
+    public void evictFullBuckets() {
+        long now = System.nanoTime();
+        userLimit.evictFull(now);
+        answerLimit.evictFull(now);
+    }
+}
@@ -0,0 +1,36 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Repository.AnswerRepository;
+import com.stackit.chat_manage_service.Repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VoteReconciliationService {
+
+    private final AnswerRepository answerRepository;
+    private final QuestionRepository questionRepository;
+
+    /**
+     * Recompute the denormalized vote counters on answers from the votes table, then the
+     * per-question answer scores from the answers, and fix any rows that have drifted.
+     */
+    @Transactional
+    public int reconcileVoteCounters() {
+        int fixed = answerRepository.reconcileVoteCounters();
+        int fixedQuestions = questionRepository.reconcileAnswerScores();
+        if (fixedQuestions > 0) {
+            log.warn("Answer score reconciliation corrected {} questions", fixedQuestions);
+        }
+        if (fixed > 0) {
+            log.warn("Vote counter reconciliation corrected {} answers", fixed);
+        } else {
+            log.info("Vote counter reconciliation found no drift");
+        }
+        return fixed;
+    }
+}
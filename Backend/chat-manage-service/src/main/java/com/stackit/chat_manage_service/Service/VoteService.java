@@ -1,19 +1,34 @@
 package com.stackit.chat_manage_service.Service;
 
 import com.stackit.chat_manage_service.Entity.Answer;
-import com.stackit.chat_manage_service.Auth.Entities.User;
-import com.stackit.chat_manage_service.Entity.Vote;
+import com.stackit.chat_manage_service.Entity.enums.VoteAction;
 import com.stackit.chat_manage_service.Entity.enums.VoteType;
+import com.stackit.chat_manage_service.Payload.Request.BatchVoteRequest;
 import com.stackit.chat_manage_service.Payload.Request.VoteRequest;
+import com.stackit.chat_manage_service.Payload.Response.BatchVoteItemResponse;
 import com.stackit.chat_manage_service.Repository.AnswerRepository;
+import com.stackit.chat_manage_service.Repository.Projection.AnswerVoteTarget;
 import com.stackit.chat_manage_service.Auth.Repository.UserRepository;
+import com.stackit.chat_manage_service.Repository.VoteJdbcRepository;
+import com.stackit.chat_manage_service.Repository.VoteJdbcRepository.VoteEventRow;
+import com.stackit.chat_manage_service.Repository.VoteJdbcRepository.VoteTransition;
 import com.stackit.chat_manage_service.Repository.VoteRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,87 +39,186 @@ public class VoteService {
     private final VoteRepository voteRepository;
     private final AnswerRepository answerRepository;
     private final UserRepository userRepository;
-    private final WebSocketService webSocketService;
+    private final VoteBroadcastCoalescer voteBroadcastCoalescer;
     private final NotificationService notificationService;
+    private final VoteAggregator voteAggregator;
+    private final VoteLedgerService voteLedgerService;
+    private final VoteJdbcRepository voteJdbcRepository;
+    private final VoteBitmapIndex voteBitmapIndex;
 
+    @Value("${app.vote.aggregator.batch-size:500}")
+    private int batchSize;
+
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void voteOnAnswer(Long answerId, VoteRequest request) {
         log.info("Processing vote on answer: {}", answerId);
 
-        Answer answer = answerRepository.findByIdAndIsActiveTrue(answerId)
+        AnswerVoteTarget target = answerRepository.findVoteTargetById(answerId)
                 .orElseThrow(() -> new RuntimeException("Answer not found"));
 
-        User user = userRepository.findById(request.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        Long userId = request.getUserId();
 
         // Prevent users from voting on their own answers
-        if (answer.getUser().getId().equals(user.getId())) {
+        if (target.getAuthorId().equals(userId)) {
             throw new RuntimeException("Cannot vote on your own answer");
         }
 
-        Optional<Vote> existingVote = voteRepository.findByUserAndAnswer(user, answer);
+        VoteType voteType = request.getVoteType();
+        String action = voteRepository.toggleAnswerVote(userId, answerId, voteType.name());
+        if (action == null) {
+            throw new RuntimeException(userRepository.existsById(userId) ? "Vote could not be applied" : "User not found");
+        }
 
-        if (existingVote.isPresent()) {
-            Vote vote = existingVote.get();
+        VoteAction voteAction = VoteAction.valueOf(action);
+        voteLedgerService.append(answerId, userId, target.getAuthorId(), voteAction, voteType);
 
-            if (vote.getVoteType() == request.getVoteType()) {
-                // Remove vote if same type is clicked again
-                voteRepository.delete(vote);
-                log.info("Vote removed for answer: {}", answerId);
-            } else {
-                // Change vote type
-                vote.setVoteType(request.getVoteType());
-                voteRepository.save(vote);
+        switch (voteAction) {
+            case CAST -> {
+                applyVoteDelta(answerId, userId, null, voteType);
+                log.info("New vote created for answer: {}", answerId);
+            }
+            case FLIP -> {
+                applyVoteDelta(answerId, userId, opposite(voteType), voteType);
                 log.info("Vote changed for answer: {}", answerId);
             }
+            case RETRACT -> {
+                applyVoteDelta(answerId, userId, voteType, null);
+                log.info("Vote removed for answer: {}", answerId);
+                return;
+            }
+        }
+
+        // Create notification for answer author
+        if (voteType == VoteType.UPVOTE) {
+            notificationService.createAnswerUpvotedNotification(answerId, userId);
         } else {
-            // Create new vote
-            Vote newVote = Vote.builder()
-                    .user(user)
-                    .answer(answer)
-                    .voteType(request.getVoteType())
-                    .build();
-
-            voteRepository.save(newVote);
-            log.info("New vote created for answer: {}", answerId);
+            notificationService.createAnswerDownvotedNotification(answerId, userId);
         }
+    }
 
-        // Calculate new score
-        int newScore = calculateAnswerScore(answer);
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void removeVote(Long answerId, Long userId) {
+        log.info("Removing vote on answer: {} by user: {}", answerId, userId);
 
-        // Send WebSocket notification about score change
-        webSocketService.broadcastVoteChange(answerId, newScore);
+        AnswerVoteTarget target = answerRepository.findVoteTargetById(answerId)
+                .orElseThrow(() -> new RuntimeException("Answer not found"));
 
-        // Create notification for answer author (if not voting on own answer)
-        if (!answer.getUser().getId().equals(user.getId())) {
-            if (request.getVoteType() == VoteType.UPVOTE) {
-                notificationService.createAnswerUpvotedNotification(answerId, user.getId());
-            } else {
-                notificationService.createAnswerDownvotedNotification(answerId, user.getId());
+        for (VoteType voteType : VoteType.values()) {
+            if (voteRepository.deleteVote(userId, answerId, voteType.name()) == 1) {
+                voteLedgerService.append(answerId, userId, target.getAuthorId(), VoteAction.RETRACT, voteType);
+                applyVoteDelta(answerId, userId, voteType, null);
+                log.info("Vote removed successfully");
+                return;
             }
         }
     }
 
-    public void removeVote(Long answerId, Long userId) {
-        log.info("Removing vote on answer: {} by user: {}", answerId, userId);
+    /**
+     * Applies a queue of vote clicks from one user in a single transaction. The clicks are
+     * replayed in order against the user's current votes in memory, and only the net change
+     * per answer is written, with one batched statement per kind of change. Invalid clicks
+     * are reported per item and do not fail the batch.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<BatchVoteItemResponse> voteOnAnswers(BatchVoteRequest request) {
+        Long userId = request.getUserId();
+        List<BatchVoteRequest.VoteIntent> intents = request.getVotes();
+        log.info("Processing batch of {} votes by user: {}", intents.size(), userId);
+
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
 
-        Answer answer = answerRepository.findByIdAndIsActiveTrue(answerId)
-                .orElseThrow(() -> new RuntimeException("Answer not found"));
+        Set<Long> answerIds = intents.stream()
+                .map(BatchVoteRequest.VoteIntent::getAnswerId)
+                .collect(Collectors.toSet());
+
+        Map<Long, AnswerVoteTarget> targets = new HashMap<>();
+        answerRepository.findVoteTargetsByIds(answerIds)
+                .forEach(target -> targets.put(target.getAnswerId(), target));
+
+        Map<Long, VoteType> initialVotes = new HashMap<>();
+        voteRepository.findByUserIdAndAnswerIds(userId, answerIds)
+                .forEach(vote -> initialVotes.put(vote.getAnswerId(), vote.getVoteType()));
+
+        Map<Long, VoteType> currentVotes = new HashMap<>(initialVotes);
+        List<VoteEventRow> events = new ArrayList<>();
+        List<BatchVoteItemResponse> results = new ArrayList<>(intents.size());
+
+        for (int i = 0; i < intents.size(); i++) {
+            BatchVoteRequest.VoteIntent intent = intents.get(i);
+            Long answerId = intent.getAnswerId();
+            VoteType voteType = intent.getVoteType();
+            AnswerVoteTarget target = targets.get(answerId);
+
+            if (target == null) {
+                results.add(mapToBatchVoteItemResponse(i, intent, null, "Answer not found"));
+                continue;
+            }
+            if (target.getAuthorId().equals(userId)) {
+                results.add(mapToBatchVoteItemResponse(i, intent, null, "Cannot vote on your own answer"));
+                continue;
+            }
+
+            VoteType existing = currentVotes.get(answerId);
+            VoteAction action;
+            if (existing == null) {
+                action = VoteAction.CAST;
+                currentVotes.put(answerId, voteType);
+            } else if (existing == voteType) {
+                action = VoteAction.RETRACT;
+                currentVotes.remove(answerId);
+            } else {
+                action = VoteAction.FLIP;
+                currentVotes.put(answerId, voteType);
+            }
+
+            events.add(new VoteEventRow(answerId, target.getAuthorId(), action, voteType));
+            results.add(mapToBatchVoteItemResponse(i, intent, action, null));
+        }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        List<VoteTransition> transitions = new ArrayList<>();
+        for (Long answerId : targets.keySet()) {
+            VoteType from = initialVotes.get(answerId);
+            VoteType to = currentVotes.get(answerId);
+            if (from != to) {
+                transitions.add(new VoteTransition(answerId, from, to));
+            }
+        }
 
-        voteRepository.findByUserAndAnswer(user, answer)
-                .ifPresent(vote -> {
-                    voteRepository.delete(vote);
+        int applied = voteJdbcRepository.applyVoteTransitions(userId, transitions, batchSize);
+        if (applied != transitions.size()) {
+            throw new RuntimeException("Votes changed while the batch was being applied, please retry");
+        }
+        voteLedgerService.appendAll(userId, events);
 
-                    // Calculate new score
-                    int newScore = calculateAnswerScore(answer);
+        for (VoteTransition transition : transitions) {
+            applyVoteDelta(transition.answerId(), userId, transition.from(), transition.to());
 
-                    // Send WebSocket notification about score change
-                    webSocketService.broadcastVoteChange(answerId, newScore);
+            // Notify the author once per answer about the vote the batch left behind
+            if (transition.to() == VoteType.UPVOTE) {
+                notificationService.createAnswerUpvotedNotification(transition.answerId(), userId);
+            } else if (transition.to() == VoteType.DOWNVOTE) {
+                notificationService.createAnswerDownvotedNotification(transition.answerId(), userId);
+            }
+        }
 
-                    log.info("Vote removed successfully");
-                });
+        log.info("Applied batch of {} votes by user: {} ({} answers changed)", intents.size(), userId, transitions.size());
+        return results;
+    }
+
+    /**
+     * Current counters for several answers, read in one query. Unknown or inactive answers
+     * are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, VoteAggregator.VoteCounts> getVoteCounts(Collection<Long> answerIds) {
+        Map<Long, VoteAggregator.VoteCounts> counts = new HashMap<>();
+        for (AnswerVoteTarget target : answerRepository.findVoteTargetsByIds(answerIds)) {
+            counts.put(target.getAnswerId(), voteAggregator.countsFor(
+                    target.getAnswerId(), target.getUpvoteCount(), target.getDownvoteCount()));
+        }
+        return counts;
     }
 
     @Transactional(readOnly = true)
@@ -112,20 +226,17 @@ public class VoteService {
         Answer answer = answerRepository.findByIdAndIsActiveTrue(answerId)
                 .orElseThrow(() -> new RuntimeException("Answer not found"));
 
-        return calculateAnswerScore(answer);
+        return voteAggregator.countsFor(answer).score();
     }
 
     @Transactional(readOnly = true)
     public VoteType getUserVoteForAnswer(Long answerId, Long userId) {
-        Answer answer = answerRepository.findByIdAndIsActiveTrue(answerId)
-                .orElseThrow(() -> new RuntimeException("Answer not found"));
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // Answers already in the voted-by index are known to exist
+        if (!voteBitmapIndex.isCached(answerId) && !answerRepository.existsByIdAndIsActiveTrue(answerId)) {
+            throw new RuntimeException("Answer not found");
+        }
 
-        return voteRepository.findByUserAndAnswer(user, answer)
-                .map(Vote::getVoteType)
-                .orElse(null);
+        return voteBitmapIndex.voteOf(answerId, userId);
     }
 
     @Transactional(readOnly = true)
@@ -133,7 +244,7 @@ public class VoteService {
         Answer answer = answerRepository.findByIdAndIsActiveTrue(answerId)
                 .orElseThrow(() -> new RuntimeException("Answer not found"));
 
-        return voteRepository.countUpvotesByAnswer(answer);
+        return voteAggregator.countsFor(answer).upvotes();
     }
 
     @Transactional(readOnly = true)
@@ -141,11 +252,59 @@ public class VoteService {
         Answer answer = answerRepository.findByIdAndIsActiveTrue(answerId)
                 .orElseThrow(() -> new RuntimeException("Answer not found"));
 
-        return voteRepository.countDownvotesByAnswer(answer);
+        return voteAggregator.countsFor(answer).downvotes();
+    }
+
+    /**
+     * Moves the answer's vote counters from one vote state to another. A null type stands
+     * for "no vote". The delta is handed to the write-behind aggregator, the voted-by index
+     * and the broadcast queue only once the vote row has been committed.
+     */
+    private void applyVoteDelta(Long answerId, Long userId, VoteType from, VoteType to) {
+        int upvoteDelta = (to == VoteType.UPVOTE ? 1 : 0) - (from == VoteType.UPVOTE ? 1 : 0);
+        int downvoteDelta = (to == VoteType.DOWNVOTE ? 1 : 0) - (from == VoteType.DOWNVOTE ? 1 : 0);
+
+        if (upvoteDelta == 0 && downvoteDelta == 0) {
+            return;
+        }
+
+        afterCommit(() -> {
+            voteBitmapIndex.apply(answerId, userId, from, to);
+
+            VoteAggregator.VoteCounts counts = voteAggregator.absorb(answerId, upvoteDelta, downvoteDelta);
+
+            // Queue a coalesced WebSocket notification about the score change
+            voteBroadcastCoalescer.submit(answerId, counts.score(), counts.sequence());
+        });
     }
 
-    private int calculateAnswerScore(Answer answer) {
-        Integer score = voteRepository.calculateScoreByAnswer(answer);
-        return score != null ? score : 0;
+    private BatchVoteItemResponse mapToBatchVoteItemResponse(int index, BatchVoteRequest.VoteIntent intent,
+                                                             VoteAction action, String error) {
+        return BatchVoteItemResponse.builder()
+                .index(index)
+                .answerId(intent.getAnswerId())
+                .voteType(intent.getVoteType().name())
+                .applied(action != null)
+                .action(action != null ? action.name() : null)
+                .message(error)
+                .build();
+    }
+
+    private VoteType opposite(VoteType voteType) {
+        return voteType == VoteType.UPVOTE ? VoteType.DOWNVOTE : VoteType.UPVOTE;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -1,11 +1,9 @@
 package com.stackit.chat_manage_service.Service;
 
-import com.stackit.chat_manage_service.Entity.Answer;
 import com.stackit.chat_manage_service.Entity.Question;
 import com.stackit.chat_manage_service.Payload.Response.AnswerResponse;
 import com.stackit.chat_manage_service.Payload.Response.NotificationResponse;
 import com.stackit.chat_manage_service.Payload.Response.QuestionResponse;
-import com.stackit.chat_manage_service.Repository.AnswerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -20,7 +18,6 @@ import java.util.Map;
 public class WebSocketService {
 
     private final SimpMessagingTemplate messagingTemplate;
-    private final AnswerRepository answerRepository;
 
     /**
      * Broadcast a new question to all connected clients
@@ -78,11 +75,10 @@ public class WebSocketService {
     }
 
     /**
-     * Broadcast answer acceptance to question subscribers
+     * Notify the answer author that their answer was accepted, without re-reading the answer
      */
-    public void broadcastAnswerAccepted(Long questionId, Long answerId) {
+    public void broadcastAnswerAccepted(Long questionId, Long answerId, Long answerAuthorId) {
         log.info("Broadcasting answer acceptance: {} for question: {}", answerId, questionId);
-        Answer answer = answerRepository.findById(answerId).orElseThrow(() -> new RuntimeException("Answer not found"));
 
         Map<String, Object> message = new HashMap<>();
         message.put("type", "ANSWER_ACCEPTED");
@@ -90,7 +86,7 @@ public class WebSocketService {
         message.put("questionId", questionId);
         message.put("answerId", answerId);
 
-        messagingTemplate.convertAndSend("/topic/" + answer.getUser().getId(), message);
+        messagingTemplate.convertAndSend("/topic/" + answerAuthorId, message);
     }
 
     /**
@@ -0,0 +1,49 @@
+package com.stackit.chat_manage_service.Utills;
+
+import org.jsoup.Jsoup;
+
+/**
+ * Builds the short plain-text excerpts that list views show instead of the full body.
+ */
+public final class ExcerptUtils {
+
+    /**
+     * Upper bound for app.richtext.excerpt-length; matches the excerpt column length.
+     */
+    public static final int MAX_EXCERPT_LENGTH = 500;
+
+    private static final String ELLIPSIS = "…";
+
+    private ExcerptUtils() {
+    }
+
+    /**
+     * Strips markup from rich-text HTML and collapses whitespace.
+     */
+    public static String plainText(String html) {
+        return html == null || html.isBlank() ? "" : Jsoup.parse(html).text().trim();
+    }
+
+    /**
+     * Strips markup from rich-text HTML, collapses whitespace and truncates the result to
+     * at most maxLength characters, cutting at a word boundary where possible.
+     */
+    public static String excerpt(String html, int maxLength) {
+        if (html == null || html.isBlank()) {
+            return "";
+        }
+
+        int limit = Math.min(maxLength, MAX_EXCERPT_LENGTH);
+        String text = plainText(html);
+        if (text.length() <= limit) {
+            return text;
+        }
+
+        int cut = limit - ELLIPSIS.length();
+        int lastSpace = text.lastIndexOf(' ', cut);
+        if (lastSpace > cut / 2) {
+            cut = lastSpace;
+        }
+        return text.substring(0, cut).stripTrailing() + ELLIPSIS;
+    }
+}
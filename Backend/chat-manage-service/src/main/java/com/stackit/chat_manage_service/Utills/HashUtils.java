@@ -0,0 +1,37 @@
+package com.stackit.chat_manage_service.Utills;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 64-bit hashing for the probabilistic sketches. String.hashCode is only 32 bits and
+ * poorly mixed, which biases both HyperLogLog registers and MinHash minima.
+ */
+public final class HashUtils {
+
+    private HashUtils() {
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, then {@link #mix64} so the high bits are well mixed.
+     */
+    public static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix64(h);
+    }
+
+    /**
+     * The MurmurHash3 64-bit finalizer.
+     */
+    public static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,90 @@
+package com.stackit.chat_manage_service.Utills;
+
+/**
+ * HyperLogLog cardinality sketch with 2^11 registers (about 2.3% standard error).
+ * <p>
+ * Sketches are mergeable: the merge of two sketches estimates the size of the union of
+ * what was added to either, so sketches recorded on different nodes or in different
+ * flush windows can be combined in any order. Serialized sketches pack each 6-bit
+ * register, 1 536 bytes in total. Offered values must already be well-mixed 64-bit hashes,
+ * see {@link HashUtils}. Not thread-safe.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 11;
+
+    private static final int REGISTER_COUNT = 1 << PRECISION;
+    private static final int REGISTER_BITS = 6;
+    private static final int MAX_RANK = 64 - PRECISION + 1;
+    private static final int SERIALIZED_SIZE = REGISTER_COUNT * REGISTER_BITS / 8;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers = new byte[REGISTER_COUNT];
+
+    public void offer(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION) + 1, MAX_RANK);
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        // Small cardinalities are estimated far better by linear counting of empty registers
+        if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[SERIALIZED_SIZE];
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            int bit = i * REGISTER_BITS;
+            int value = registers[i] << (bit & 7);
+            bytes[bit >> 3] |= (byte) value;
+            if ((bit & 7) > 8 - REGISTER_BITS) {
+                bytes[(bit >> 3) + 1] |= (byte) (value >> 8);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes were not produced by {@link #toBytes()}
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length != SERIALIZED_SIZE) {
+            throw new IllegalArgumentException("Invalid sketch size: " + bytes.length);
+        }
+
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            int bit = i * REGISTER_BITS;
+            int value = (bytes[bit >> 3] & 0xFF) >>> (bit & 7);
+            if ((bit & 7) > 8 - REGISTER_BITS) {
+                value |= (bytes[(bit >> 3) + 1] & 0xFF) << (8 - (bit & 7));
+            }
+            sketch.registers[i] = (byte) (value & ((1 << REGISTER_BITS) - 1));
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,115 @@
+package com.stackit.chat_manage_service.Utills;
+
+/**
+ * Open-addressing map from long keys to long counters, with no boxing of keys or values.
+ * <p>
+ * Keys and counters live in two parallel arrays probed linearly from a multiplicative
+ * hash of the key; the tables double once they are half full. Key 0 marks an empty slot,
+ * so a counter for key 0 is kept beside the tables. Entries are never removed one by one:
+ * callers drain the whole map and start a new one. Not thread-safe.
+ */
+public final class LongCounterMap {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    private long[] keys;
+    private long[] values;
+    private int shift;
+    private int size;
+
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    public LongCounterMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongCounterMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    public void add(long key, long delta) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroValue += delta;
+            return;
+        }
+        int slot = slotFor(key);
+        if (keys[slot] == key) {
+            values[slot] += delta;
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        size++;
+        if (size * 2 > keys.length) {
+            resize(keys.length << 1);
+        }
+    }
+
+    /**
+     * The counter for a key, or 0 if it was never added.
+     */
+    public long get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int slot = slotFor(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    public int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void forEach(EntryConsumer action) {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    // Slot holding the key, or the empty slot where it belongs
+    private int slotFor(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * GOLDEN_RATIO) >>> shift);
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        shift = Long.numberOfLeadingZeros(capacity - 1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.stackit.chat_manage_service.Utills;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * MinHash signatures of text, for estimating the Jaccard similarity of the word-shingle
+ * sets of two texts without comparing the texts themselves.
+ * <p>
+ * Text is analyzed with {@link TextAnalyzer} and cut into overlapping word pairs, so
+ * reordered phrases and different inflections of the same words still share shingles.
+ * The i-th of the k hash functions is derived from two base hashes as h1 + i * h2.
+ */
+public final class MinHash {
+
+    private MinHash() {
+    }
+
+    /**
+     * @return the signature, or null when the text has no terms to shingle
+     */
+    public static int[] signature(String text, int size) {
+        Set<Long> shingles = shingles(TextAnalyzer.analyze(text));
+        if (shingles.isEmpty()) {
+            return null;
+        }
+
+        int[] signature = new int[size];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            long h1 = shingle;
+            long h2 = HashUtils.mix64(shingle ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < size; i++) {
+                int value = (int) ((h1 + i * h2) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Fraction of positions on which two signatures agree; an estimate of the Jaccard
+     * similarity of the underlying shingle sets.
+     */
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    private static Set<Long> shingles(List<String> terms) {
+        Set<Long> shingles = new HashSet<>();
+        if (terms.size() == 1) {
+            shingles.add(HashUtils.hash64(terms.get(0)));
+        }
+        for (int i = 0; i + 1 < terms.size(); i++) {
+            shingles.add(HashUtils.hash64(terms.get(i) + " " + terms.get(i + 1)));
+        }
+        return shingles;
+    }
+}
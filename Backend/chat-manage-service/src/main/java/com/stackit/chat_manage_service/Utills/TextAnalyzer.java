@@ -0,0 +1,109 @@
+package com.stackit.chat_manage_service.Utills;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns text into search terms: folds case and accents, splits on anything that is not a
+ * letter or digit, drops common English stop words and reduces words to a stem. Queries
+ * and documents must go through the same analysis for their terms to meet.
+ */
+public final class TextAnalyzer {
+
+    // Trailing + and # keep language names such as c++ and c# apart from c
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+[+#]*");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern VOWEL = Pattern.compile("[aeiouy]");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "do", "does", "for",
+            "from", "how", "i", "if", "in", "into", "is", "it", "my", "of", "on", "or", "so",
+            "that", "the", "this", "to", "was", "what", "when", "where", "which", "why", "with");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : tokenize(text)) {
+            if (!STOP_WORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Folds case and accents and splits into tokens, without dropping stop words or
+     * stemming; prefix matching needs the words as they were typed.
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(normalized);
+        while (matcher.find()) {
+            tokens.add(matcher.group());
+        }
+        return tokens;
+    }
+
+    /**
+     * Light English suffix stripping (plurals, -ing, -ed, -ly, final -e). Tokens that are
+     * not purely alphabetic, such as version numbers, are left alone.
+     */
+    static String stem(String token) {
+        if (!token.chars().allMatch(Character::isLetter)) {
+            return token;
+        }
+
+        String stem = token;
+        if (stem.length() > 4 && stem.endsWith("ies")) {
+            stem = stem.substring(0, stem.length() - 3) + "y";
+        } else if (stem.endsWith("sses")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.length() > 3 && stem.endsWith("s")
+                && !stem.endsWith("ss") && !stem.endsWith("us") && !stem.endsWith("is")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        if (stem.length() > 5 && stem.endsWith("ing")) {
+            stem = stripSuffix(stem, 3);
+        } else if (stem.length() > 4 && stem.endsWith("ed")) {
+            stem = stripSuffix(stem, 2);
+        } else if (stem.length() > 4 && stem.endsWith("ly")) {
+            stem = stripSuffix(stem, 2);
+        }
+
+        if (stem.length() > 4 && stem.endsWith("e")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    // Only strip when a vowel is left, so "string" and "spring" stay whole; undouble
+    // the final consonant so "running" meets "run"
+    private static String stripSuffix(String word, int suffixLength) {
+        String stem = word.substring(0, word.length() - suffixLength);
+        if (!VOWEL.matcher(stem).find()) {
+            return word;
+        }
+
+        int n = stem.length();
+        if (n > 2 && stem.charAt(n - 1) == stem.charAt(n - 2) && "lszaeiou".indexOf(stem.charAt(n - 1)) < 0) {
+            stem = stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+}
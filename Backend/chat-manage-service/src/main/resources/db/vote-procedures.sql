@@ -0,0 +1,47 @@
+-- Toggle vote routine used by VoteRepository.toggleAnswerVote.
+--
+-- Applies the click semantics of the vote buttons in one round trip:
+--   same type already present   -> RETRACT (row deleted)
+--   opposite type present       -> FLIP    (row updated)
+--   no vote yet                 -> CAST    (row inserted)
+-- Every branch is decided by the affected row count of a single conditional
+-- statement, so concurrent clicks never hit the (user_id, answer_id) unique
+-- constraint and the returned action always matches the row change that was made.
+-- Statements that lose a race simply fall through and the loop tries again.
+
+DROP PROCEDURE IF EXISTS toggle_answer_vote$$
+
+CREATE PROCEDURE toggle_answer_vote(
+    IN p_user_id BIGINT,
+    IN p_answer_id BIGINT,
+    IN p_vote_type VARCHAR(16),
+    OUT p_action VARCHAR(16))
+BEGIN
+    DECLARE attempts INT DEFAULT 0;
+    SET p_action = NULL;
+
+    WHILE p_action IS NULL AND attempts < 3 DO
+        SET attempts = attempts + 1;
+
+        DELETE FROM votes
+        WHERE user_id = p_user_id AND answer_id = p_answer_id AND vote_type = p_vote_type;
+
+        IF ROW_COUNT() = 1 THEN
+            SET p_action = 'RETRACT';
+        ELSE
+            UPDATE votes SET vote_type = p_vote_type
+            WHERE user_id = p_user_id AND answer_id = p_answer_id AND vote_type <> p_vote_type;
+
+            IF ROW_COUNT() = 1 THEN
+                SET p_action = 'FLIP';
+            ELSE
+                INSERT IGNORE INTO votes (user_id, answer_id, vote_type, created_at)
+                VALUES (p_user_id, p_answer_id, p_vote_type, NOW(6));
+
+                IF ROW_COUNT() = 1 THEN
+                    SET p_action = 'CAST';
+                END IF;
+            END IF;
+        END IF;
+    END WHILE;
+END$$
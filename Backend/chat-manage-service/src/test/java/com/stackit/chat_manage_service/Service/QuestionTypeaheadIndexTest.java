@@ -0,0 +1,161 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Payload.Response.QuestionSuggestionResponse;
+import com.stackit.chat_manage_service.Repository.Projection.QuestionTypeaheadRow;
+import com.stackit.chat_manage_service.Repository.QuestionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuestionTypeaheadIndexTest {
+
+    private static final int SUGGESTIONS_PER_NODE = 3;
+
+    private QuestionRepository questionRepository;
+    private QuestionTypeaheadIndex index;
+    private final List<QuestionTypeaheadRow> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        questionRepository = mock(QuestionRepository.class);
+        when(questionRepository.findMaxId()).thenAnswer(invocation -> (long) rows.size());
+        when(questionRepository.findTypeaheadRowsByIdRange(anyLong(), anyLong())).thenAnswer(invocation -> rows);
+
+        index = new QuestionTypeaheadIndex(questionRepository, SUGGESTIONS_PER_NODE);
+        ReflectionTestUtils.setField(index, "chunkSize", 1000);
+        ReflectionTestUtils.setField(index, "scoreWeight", 10.0);
+    }
+
+    @Test
+    void suggestsTitlesWithWordStartingWithPrefixBestFirst() {
+        question(1L, "Sorting a list in Java", 100, 0);
+        question(2L, "Java streams explained", 50, 10);
+        question(3L, "Python list comprehension", 10, 0);
+        index.rebuild();
+
+        // Ranks are views plus ten times the score: 100, 150, 10
+        assertEquals(List.of(2L, 1L), ids(index.suggest("jav", 10)));
+        assertEquals(List.of(1L, 3L), ids(index.suggest("LIST", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("streams", 10)));
+    }
+
+    @Test
+    void equalRanksPreferNewerQuestions() {
+        question(1L, "Gradle build cache", 10, 0);
+        question(2L, "Gradle wrapper upgrade", 10, 0);
+        index.rebuild();
+
+        assertEquals(List.of(2L, 1L), ids(index.suggest("gradle", 10)));
+    }
+
+    @Test
+    void limitIsCappedAtSuggestionsPerNode() {
+        for (long id = 1; id <= 5; id++) {
+            question(id, "Docker question " + id, (int) id, 0);
+        }
+        index.rebuild();
+
+        assertEquals(List.of(5L, 4L), ids(index.suggest("dock", 2)));
+        assertEquals(List.of(5L, 4L, 3L), ids(index.suggest("dock", 50)));
+        assertEquals(List.of(), index.suggest("dock", 0));
+    }
+
+    @Test
+    void earlierWordsAreMatchedBeyondThePerNodeCut() {
+        // More popular "l" titles than the node keeps, none of them about spring boot
+        question(1L, "Linux permissions", 1000, 0);
+        question(2L, "Lambda expressions", 900, 0);
+        question(3L, "Laravel routing", 800, 0);
+        question(4L, "Lua tables", 700, 0);
+        question(5L, "Spring Boot logging levels", 1, 0);
+        question(6L, "Spring Boot testing", 5, 0);
+        index.rebuild();
+
+        assertEquals(List.of(5L), ids(index.suggest("spring boot l", 10)));
+        assertEquals(List.of(6L, 5L), ids(index.suggest("boot spring ", 10)));
+    }
+
+    @Test
+    void rareLastPrefixIsIntersectedWithCommonEarlierWords() {
+        // "how" is in every title; few titles have a word starting with "kub"
+        for (long id = 1; id <= 6; id++) {
+            question(id, "How to use Git " + id, 100 + (int) id, 0);
+        }
+        question(7L, "How to restart kubernetes kubelet", 10, 0);
+        question(8L, "How kubectl applies", 20, 0);
+        question(9L, "Kubernetes without the question word", 1000, 0);
+        index.rebuild();
+
+        assertEquals(List.of(8L, 7L), ids(index.suggest("how kub", 10)));
+        assertEquals(List.of(7L), ids(index.suggest("how to kube", 10)));
+        assertEquals(List.of(), ids(index.suggest("git kub", 10)));
+    }
+
+    @Test
+    void earlierWordsMustBeWholeWords() {
+        question(1L, "Spring Boot logging levels", 1, 0);
+        index.rebuild();
+
+        assertEquals(List.of(), index.suggest("spr boot", 10));
+        assertEquals(List.of(), index.suggest("kotlin log", 10));
+        assertEquals(List.of(1L), ids(index.suggest("boot lev", 10)));
+    }
+
+    @Test
+    void unmatchedOrBlankQueriesSuggestNothing() {
+        question(1L, "Spring Boot logging levels", 1, 0);
+        index.rebuild();
+
+        assertEquals(List.of(), index.suggest("rust", 10));
+        assertEquals(List.of(), index.suggest("  ", 10));
+        assertEquals(List.of(), index.suggest(null, 10));
+    }
+
+    @Test
+    void rebuildReplacesTheTrie() {
+        question(1L, "Kafka consumer lag", 1, 0);
+        index.rebuild();
+        rows.clear();
+        question(2L, "Kubernetes pod restarts", 1, 0);
+        index.rebuild();
+
+        assertEquals(List.of(), index.suggest("kafka", 10));
+        assertEquals(List.of(2L), ids(index.suggest("k", 10)));
+    }
+
+    private void question(Long id, String title, int viewCount, int score) {
+        rows.add(new QuestionTypeaheadRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public Integer getViewCount() {
+                return viewCount;
+            }
+
+            @Override
+            public Integer getScore() {
+                return score;
+            }
+        });
+    }
+
+    private static List<Long> ids(List<QuestionSuggestionResponse> suggestions) {
+        return suggestions.stream().map(QuestionSuggestionResponse::getId).toList();
+    }
+}
@@ -0,0 +1,139 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Event.QuestionChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TagFilterIndexTest {
+
+    private TagFilterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Postings come from events only, so no repository is needed
+        index = new TagFilterIndex(null);
+        tag(1L, "java", "spring");
+        tag(2L, "java", "spring-boot");
+        tag(3L, "kotlin", "spring");
+        tag(4L, "java", "hibernate");
+        tag(5L, "java", "kotlin", "spring");
+        tag(6L, "python");
+        tag(7L, "java");
+        index.onQuestionChanged(QuestionChangedEvent.removed(7L));
+    }
+
+    @Test
+    void andBindsTighterThanOr() {
+        assertMatches("java OR kotlin AND spring", 1, 2, 3, 4, 5);
+        assertMatches("(java OR kotlin) AND spring", 1, 3, 5);
+        assertMatches("NOT java OR python", 3, 6);
+    }
+
+    @Test
+    void adjacentTagsAreAnded() {
+        assertMatches("java spring", 1, 5);
+        assertMatches("java AND spring", 1, 5);
+        assertMatches("JAVA and Spring", 1, 5);
+    }
+
+    @Test
+    void symbolOperatorsMatchKeywords() {
+        assertMatches("java & !kotlin | python", 1, 2, 4, 6);
+        assertMatches("hibernate, python", 4, 6);
+    }
+
+    @Test
+    void leadingDashNegatesButInnerDashIsPartOfTag() {
+        assertMatches("-kotlin", 1, 2, 4, 6);
+        assertMatches("java -kotlin", 1, 2, 4);
+        assertMatches("spring-boot", 2);
+        assertMatches("java spring-boot", 2);
+    }
+
+    @Test
+    void removedQuestionsDoNotMatch() {
+        assertMatches("java", 1, 2, 4, 5);
+        assertMatches("-python", 1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void retaggingMovesOnlyTheChangedTags() {
+        tag(1L, "java", "gradle");
+
+        assertMatches("spring", 3, 5);
+        assertMatches("gradle", 1);
+        assertMatches("java", 1, 2, 4, 5);
+        assertArrayEquals(new long[]{1, 2, 4, 5}, index.anyOf(List.of("java", "gradle")).toArray());
+    }
+
+    @Test
+    void removingTheLastQuestionOfATagDropsIt() {
+        index.onQuestionChanged(QuestionChangedEvent.removed(6L));
+        tag(6L, "python");
+
+        assertMatches("python", 6);
+        index.onQuestionChanged(QuestionChangedEvent.removed(6L));
+        assertMatches("python");
+        assertMatches("-java", 3);
+    }
+
+    @Test
+    void unknownTagMatchesNothing() {
+        assertMatches("rust");
+        assertMatches("java AND rust");
+    }
+
+    @Test
+    void malformedExpressionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> index.evaluate("(java"));
+        assertThrows(IllegalArgumentException.class, () -> index.evaluate("java)"));
+        assertThrows(IllegalArgumentException.class, () -> index.evaluate("(java OR (spring)"));
+        assertThrows(IllegalArgumentException.class, () -> index.evaluate("java AND"));
+        assertThrows(IllegalArgumentException.class, () -> index.evaluate(" "));
+        assertThrows(IllegalArgumentException.class, () -> index.evaluate("java".repeat(200)));
+    }
+
+    @Test
+    void newestFirstWithoutCursorStartsAtHighestId() {
+        Roaring64Bitmap ids = Roaring64Bitmap.bitmapOf(10, 20, 30, 40, 50);
+
+        assertEquals(List.of(50L, 40L), TagFilterIndex.newestFirst(ids, null, 2));
+        assertEquals(List.of(50L, 40L, 30L, 20L, 10L), TagFilterIndex.newestFirst(ids, null, 10));
+    }
+
+    @Test
+    void newestFirstStartsBelowCursor() {
+        Roaring64Bitmap ids = Roaring64Bitmap.bitmapOf(10, 20, 30, 40, 50);
+
+        // Cursor id present in the bitmap and absent from it
+        assertEquals(List.of(30L, 20L), TagFilterIndex.newestFirst(ids, 40L, 2));
+        assertEquals(List.of(30L, 20L), TagFilterIndex.newestFirst(ids, 35L, 2));
+        assertEquals(List.of(50L, 40L), TagFilterIndex.newestFirst(ids, 1000L, 2));
+    }
+
+    @Test
+    void newestFirstLastPage() {
+        Roaring64Bitmap ids = Roaring64Bitmap.bitmapOf(10, 20, 30, 40, 50);
+
+        assertEquals(List.of(10L), TagFilterIndex.newestFirst(ids, 20L, 5));
+        assertEquals(List.of(), TagFilterIndex.newestFirst(ids, 10L, 5));
+        assertEquals(List.of(), TagFilterIndex.newestFirst(ids, 0L, 5));
+        assertEquals(List.of(), TagFilterIndex.newestFirst(new Roaring64Bitmap(), null, 5));
+    }
+
+    private void tag(Long questionId, String... tagNames) {
+        index.onQuestionChanged(new QuestionChangedEvent(questionId, "title", "", Set.of(tagNames), true));
+    }
+
+    private void assertMatches(String expression, long... expected) {
+        assertArrayEquals(expected, index.evaluate(expression).toArray(), expression);
+    }
+}
@@ -0,0 +1,120 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VoteRateLimiterTest {
+
+    private static final int USER_BURST = 100;
+    // Slow enough that no bucket refills while a test runs
+    private static final double REFILL_PER_SECOND = 0.001;
+
+    private VoteRateLimiter limiter(int answerBurst) {
+        return new VoteRateLimiter(new SimpleMeterRegistry(), USER_BURST, REFILL_PER_SECOND,
+                answerBurst, REFILL_PER_SECOND);
+    }
+
+    @Test
+    void fullBatchIsAllowed() {
+        VoteRateLimiter limiter = limiter(1);
+
+        assertDoesNotThrow(() -> limiter.check(1L, answers(1, USER_BURST)));
+    }
+
+    @Test
+    void userBurstMustCoverAFullBatch() {
+        assertThrows(IllegalStateException.class, () -> new VoteRateLimiter(new SimpleMeterRegistry(),
+                USER_BURST - 1, REFILL_PER_SECOND, 1, REFILL_PER_SECOND));
+    }
+
+    @Test
+    void batchChargesTheUserOncePerVote() {
+        VoteRateLimiter limiter = limiter(10);
+
+        limiter.check(1L, answers(1, USER_BURST - 1));
+        limiter.check(1L, 1_000L);
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.check(1L, 1_001L));
+        assertThrows(RateLimitExceededException.class, () -> limiter.check(1L, List.of(1_002L, 1_003L)));
+    }
+
+    @Test
+    void repeatedAnswerCostsOneAnswerToken() {
+        VoteRateLimiter limiter = limiter(1);
+
+        limiter.check(1L, List.of(7L, 7L, 7L));
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.check(2L, 7L));
+    }
+
+    @Test
+    void rejectedBatchTakesNoTokens() {
+        VoteRateLimiter limiter = limiter(1);
+        limiter.check(1L, 99L);
+
+        // Answer 99 is exhausted, so the whole batch is rejected before anything is taken
+        assertThrows(RateLimitExceededException.class, () -> limiter.check(2L, List.of(5L, 6L, 99L)));
+
+        assertDoesNotThrow(() -> limiter.check(3L, List.of(5L, 6L)));
+        assertDoesNotThrow(() -> limiter.check(2L, answers(1_000, USER_BURST)));
+    }
+
+    @Test
+    void tokensTakenBeforeAConcurrentRejectionAreReleased() throws InterruptedException {
+        // Every batch touches its own answer and then a shared one that only a few can take,
+        // so some batches pass the check and lose the shared answer to a concurrent batch
+        int shared = 3;
+        int threads = 32;
+        VoteRateLimiter limiter = limiter(shared);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        List<Long> rejectedUsers = Collections.synchronizedList(new ArrayList<>());
+
+        for (long user = 1; user <= threads; user++) {
+            long userId = user;
+            executor.submit(() -> {
+                start.await();
+                try {
+                    limiter.check(userId, List.of(userId, 0L));
+                    allowed.incrementAndGet();
+                } catch (RateLimitExceededException e) {
+                    rejectedUsers.add(userId);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(shared, allowed.get());
+        for (Long userId : rejectedUsers) {
+            // The user and the batch's own answer still have every token
+            assertDoesNotThrow(() -> limiter.check(userId, answers(1_000 * userId, USER_BURST)));
+            for (int i = 0; i < shared; i++) {
+                assertDoesNotThrow(() -> limiter.check(-userId, userId));
+            }
+        }
+    }
+
+    private static List<Long> answers(long from, int count) {
+        return LongStream.range(from, from + count).boxed().toList();
+    }
+}
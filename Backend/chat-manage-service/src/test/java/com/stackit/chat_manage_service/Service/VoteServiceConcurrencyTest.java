@@ -0,0 +1,161 @@
+package com.stackit.chat_manage_service.Service;
+
+import com.stackit.chat_manage_service.Auth.Entities.User;
+import com.stackit.chat_manage_service.Auth.Repository.UserRepository;
+import com.stackit.chat_manage_service.Entity.Answer;
+import com.stackit.chat_manage_service.Entity.Question;
+import com.stackit.chat_manage_service.Entity.RichTextBody;
+import com.stackit.chat_manage_service.Entity.enums.VoteType;
+import com.stackit.chat_manage_service.Payload.Request.VoteRequest;
+import com.stackit.chat_manage_service.Repository.AnswerRepository;
+import com.stackit.chat_manage_service.Repository.NotificationRepository;
+import com.stackit.chat_manage_service.Repository.QuestionRepository;
+import com.stackit.chat_manage_service.Repository.VoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class VoteServiceConcurrencyTest {
+
+    private static final int VOTERS = 1000;
+    private static final int THREADS = 48;
+
+    @Autowired
+    private VoteService voteService;
+
+    @Autowired
+    private VoteAggregator voteAggregator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private final List<User> createdUsers = new ArrayList<>();
+    private Question question;
+    private Answer answer;
+
+    @Test
+    void parallelToggleVotesKeepCountersConsistent() throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+
+        User author = createUser("author", run);
+        question = questionRepository.save(Question.builder()
+                .title("Concurrent voting test " + run)
+                .body(RichTextBody.of("Question used to exercise concurrent toggle votes."))
+                .user(author)
+                .tags(new HashSet<>())
+                .build());
+        answer = answerRepository.save(Answer.builder()
+                .body(RichTextBody.of("Answer that receives thousands of concurrent votes."))
+                .question(question)
+                .user(author)
+                .build());
+
+        // Voter i clicks the same button (1 + i % 4) times, all at once. Whatever order the
+        // clicks land in, an odd number of identical toggles leaves exactly one vote.
+        int expectedUpvotes = 0;
+        int expectedDownvotes = 0;
+        List<Runnable> clicks = new ArrayList<>();
+        for (int i = 0; i < VOTERS; i++) {
+            User voter = createUser("voter" + i, run);
+            VoteType voteType = i % 2 == 0 ? VoteType.UPVOTE : VoteType.DOWNVOTE;
+            int clickCount = 1 + i % 4;
+
+            if (clickCount % 2 == 1) {
+                if (voteType == VoteType.UPVOTE) {
+                    expectedUpvotes++;
+                } else {
+                    expectedDownvotes++;
+                }
+            }
+
+            for (int c = 0; c < clickCount; c++) {
+                clicks.add(() -> voteService.voteOnAnswer(answer.getId(), new VoteRequest(voteType, voter.getId())));
+            }
+        }
+
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (Runnable click : clicks) {
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    click.run();
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.MINUTES), "votes did not finish in time");
+
+        assertTrue(failures.isEmpty(), () -> failures.size() + " of " + clicks.size()
+                + " votes failed, first: " + failures.peek());
+
+        voteAggregator.flush();
+        Answer stored = answerRepository.findById(answer.getId()).orElseThrow();
+
+        assertEquals(expectedUpvotes, voteRepository.countUpvotesByAnswer(stored));
+        assertEquals(expectedDownvotes, voteRepository.countDownvotesByAnswer(stored));
+        assertEquals(expectedUpvotes, stored.getUpvoteCount());
+        assertEquals(expectedDownvotes, stored.getDownvoteCount());
+        assertEquals(expectedUpvotes - expectedDownvotes, stored.getScore());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (answer != null) {
+            voteRepository.deleteAll(voteRepository.findByAnswer(answer));
+        }
+        if (!createdUsers.isEmpty()) {
+            notificationRepository.deleteAll(notificationRepository
+                    .findByUserOrderByCreatedAtDesc(createdUsers.get(0), Pageable.unpaged()).getContent());
+        }
+        if (answer != null) {
+            answerRepository.delete(answer);
+        }
+        if (question != null) {
+            questionRepository.delete(question);
+        }
+        userRepository.deleteAll(createdUsers);
+    }
+
+    private User createUser(String name, String run) {
+        User user = userRepository.save(User.builder()
+                .username(name + "_" + run)
+                .email(name + "_" + run + "@votes.test")
+                .password("not-a-real-password")
+                .build());
+        createdUsers.add(user);
+        return user;
+    }
+}
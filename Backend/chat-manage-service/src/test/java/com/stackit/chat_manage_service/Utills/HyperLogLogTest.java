@@ -0,0 +1,123 @@
+package com.stackit.chat_manage_service.Utills;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    private static final int REGISTER_COUNT = 1 << HyperLogLog.PRECISION;
+    private static final int MAX_RANK = 64 - HyperLogLog.PRECISION + 1;
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertEquals(0, new HyperLogLog().estimate());
+        assertEquals(0, HyperLogLog.fromBytes(new HyperLogLog().toBytes()).estimate());
+    }
+
+    @Test
+    void everyRegisterValueSurvivesRoundTrip() {
+        // Registers start at every bit offset within a byte, and every rank is used
+        HyperLogLog sketch = new HyperLogLog();
+        for (int register = 0; register < REGISTER_COUNT; register++) {
+            int rank = register % (MAX_RANK + 1);
+            if (rank > 0) {
+                sketch.offer(hashWithRank(register, rank));
+            }
+        }
+
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+        assertEquals(REGISTER_COUNT * 6 / 8, bytes.length);
+        assertArrayEquals(bytes, restored.toBytes());
+        assertEquals(sketch.estimate(), restored.estimate());
+    }
+
+    @Test
+    void registersArePackedAsConsecutiveSixBitFields() {
+        // Eight registers cover every bit offset within a byte, including the ones that
+        // straddle a byte boundary
+        for (int register = 0; register < 8; register++) {
+            for (int rank = 1; rank <= MAX_RANK; rank++) {
+                HyperLogLog sketch = new HyperLogLog();
+                sketch.offer(hashWithRank(register, rank));
+                byte[] bytes = sketch.toBytes();
+
+                int setBits = 0;
+                for (byte b : bytes) {
+                    setBits += Integer.bitCount(b & 0xFF);
+                }
+                assertEquals(Integer.bitCount(rank), setBits);
+                assertEquals(rank, field(bytes, register), "register " + register + ", rank " + rank);
+                assertArrayEquals(bytes, HyperLogLog.fromBytes(bytes).toBytes());
+            }
+        }
+    }
+
+    @Test
+    void estimatesAreWithinExpectedError() {
+        for (int cardinality : new int[]{100, 1_000, 10_000, 100_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < cardinality; i++) {
+                sketch.offer(HashUtils.hash64("user-" + i));
+            }
+
+            double error = Math.abs(sketch.estimate() - cardinality) / (double) cardinality;
+            assertTrue(error < 0.05, cardinality + " estimated as " + sketch.estimate());
+        }
+    }
+
+    @Test
+    void duplicatesDoNotChangeEstimate() {
+        HyperLogLog once = new HyperLogLog();
+        HyperLogLog twice = new HyperLogLog();
+        for (int i = 0; i < 5_000; i++) {
+            once.offer(HashUtils.hash64("user-" + i));
+            twice.offer(HashUtils.hash64("user-" + i));
+            twice.offer(HashUtils.hash64("user-" + i));
+        }
+
+        assertEquals(once.estimate(), twice.estimate());
+    }
+
+    @Test
+    void mergeEstimatesUnion() {
+        HyperLogLog left = new HyperLogLog();
+        HyperLogLog right = new HyperLogLog();
+        for (int i = 0; i < 30_000; i++) {
+            left.offer(HashUtils.hash64("user-" + i));
+        }
+        for (int i = 20_000; i < 50_000; i++) {
+            right.offer(HashUtils.hash64("user-" + i));
+        }
+
+        left.merge(HyperLogLog.fromBytes(right.toBytes()));
+
+        double error = Math.abs(left.estimate() - 50_000) / 50_000.0;
+        assertTrue(error < 0.05, "union estimated as " + left.estimate());
+    }
+
+    @Test
+    void rejectsBytesOfWrongSize() {
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[10]));
+    }
+
+    private static int field(byte[] bytes, int register) {
+        int value = 0;
+        for (int i = 0; i < 6; i++) {
+            int bit = register * 6 + i;
+            value |= ((bytes[bit >> 3] >> (bit & 7)) & 1) << i;
+        }
+        return value;
+    }
+
+    // The top bits pick the register; the rank is the position of the first set bit after them
+    private static long hashWithRank(int register, int rank) {
+        long index = (long) register << (64 - HyperLogLog.PRECISION);
+        return rank == MAX_RANK ? index : index | (1L << (MAX_RANK - 1 - rank));
+    }
+}
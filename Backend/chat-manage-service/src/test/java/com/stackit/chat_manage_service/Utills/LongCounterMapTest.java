@@ -0,0 +1,73 @@
+package com.stackit.chat_manage_service.Utills;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongCounterMapTest {
+
+    @Test
+    void missingKeyCountsZero() {
+        LongCounterMap map = new LongCounterMap();
+
+        assertEquals(0, map.get(42));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void addsAccumulatePerKey() {
+        LongCounterMap map = new LongCounterMap();
+        map.add(7, 1);
+        map.add(7, 1);
+        map.add(8, 5);
+        map.add(7, -1);
+
+        assertEquals(1, map.get(7));
+        assertEquals(5, map.get(8));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void zeroAndNegativeKeysAreCounted() {
+        LongCounterMap map = new LongCounterMap();
+        map.add(0, 3);
+        map.add(-1, 4);
+        map.add(Long.MIN_VALUE, 5);
+
+        assertEquals(3, map.get(0));
+        assertEquals(4, map.get(-1));
+        assertEquals(5, map.get(Long.MIN_VALUE));
+        assertEquals(3, map.size());
+
+        Map<Long, Long> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertEquals(Map.of(0L, 3L, -1L, 4L, Long.MIN_VALUE, 5L), seen);
+    }
+
+    @Test
+    void matchesHashMapAcrossResizes() {
+        // Sequential ids, as question ids are, mixed with random ones that collide freely
+        Random random = new Random(11);
+        LongCounterMap map = new LongCounterMap();
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            long key = i % 2 == 0 ? random.nextInt(20_000) : random.nextLong();
+            long delta = random.nextInt(10) + 1;
+            map.add(key, delta);
+            expected.merge(key, delta, Long::sum);
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        Map<Long, Long> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertEquals(expected, seen);
+    }
+}
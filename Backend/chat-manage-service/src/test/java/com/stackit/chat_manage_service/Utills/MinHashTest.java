@@ -0,0 +1,70 @@
+package com.stackit.chat_manage_service.Utills;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashTest {
+
+    private static final int SIZE = 256;
+
+    @Test
+    void textWithoutTermsHasNoSignature() {
+        assertNull(MinHash.signature(null, SIZE));
+        assertNull(MinHash.signature("   ", SIZE));
+        assertNull(MinHash.signature("how to do the", SIZE));
+    }
+
+    @Test
+    void singleTermTextHasSignature() {
+        int[] signature = MinHash.signature("kubernetes", SIZE);
+
+        assertNotNull(signature);
+        assertEquals(SIZE, signature.length);
+    }
+
+    @Test
+    void signaturesAreDeterministic() {
+        String text = "Spring Boot datasource fails to start with Hikari pool";
+
+        assertArrayEquals(MinHash.signature(text, SIZE), MinHash.signature(text, SIZE));
+        assertEquals(1.0, MinHash.similarity(MinHash.signature(text, SIZE), MinHash.signature(text, SIZE)));
+    }
+
+    @Test
+    void inflectionsAndStopWordsDoNotMatter() {
+        int[] a = MinHash.signature("How to configure Spring Boot datasource", SIZE);
+        int[] b = MinHash.signature("Configuring the Spring Boot datasource", SIZE);
+
+        assertEquals(1.0, MinHash.similarity(a, b));
+    }
+
+    @Test
+    void similarityEstimatesJaccardOfShingles() {
+        // 40 word pairs each, 20 of them shared: Jaccard similarity 20 / 60
+        int[] a = MinHash.signature(words(0, 41), SIZE);
+        int[] b = MinHash.signature(words(20, 61), SIZE);
+
+        double similarity = MinHash.similarity(a, b);
+        assertTrue(Math.abs(similarity - 1.0 / 3) < 0.1, "similarity " + similarity);
+    }
+
+    @Test
+    void unrelatedTextsAreDissimilar() {
+        int[] a = MinHash.signature("Spring Boot datasource fails to start with Hikari pool", SIZE);
+        int[] b = MinHash.signature("Python pandas dataframe merge drops rows silently", SIZE);
+
+        assertTrue(MinHash.similarity(a, b) < 0.1);
+    }
+
+    private static String words(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "w" + i).collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,67 @@
+package com.stackit.chat_manage_service.Utills;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextAnalyzerTest {
+
+    @Test
+    void tokenizeFoldsCaseAndAccents() {
+        assertEquals(List.of("cafe", "creme", "brulee"), TextAnalyzer.tokenize("Café CRÈME brûlée"));
+    }
+
+    @Test
+    void tokenizeKeepsLanguageSuffixes() {
+        assertEquals(List.of("c++", "and", "c#", "in", "node", "js"), TextAnalyzer.tokenize("C++ and C# in Node.js!"));
+    }
+
+    @Test
+    void tokenizeKeepsStopWords() {
+        assertEquals(List.of("how", "to", "sort", "a", "list"), TextAnalyzer.tokenize("How to sort a list?"));
+    }
+
+    @Test
+    void blankTextHasNoTokens() {
+        assertEquals(List.of(), TextAnalyzer.tokenize(null));
+        assertEquals(List.of(), TextAnalyzer.tokenize("  "));
+        assertEquals(List.of(), TextAnalyzer.analyze("?!"));
+    }
+
+    @Test
+    void analyzeDropsStopWordsAndStems() {
+        assertEquals(List.of("run", "test", "spring"), TextAnalyzer.analyze("Running the tests in Spring"));
+    }
+
+    @Test
+    void stemStripsPlurals() {
+        assertEquals("query", TextAnalyzer.stem("queries"));
+        assertEquals("class", TextAnalyzer.stem("classes"));
+        assertEquals("test", TextAnalyzer.stem("tests"));
+        assertEquals("status", TextAnalyzer.stem("status"));
+        assertEquals("analysis", TextAnalyzer.stem("analysis"));
+    }
+
+    @Test
+    void stemStripsVerbAndAdverbSuffixes() {
+        assertEquals("run", TextAnalyzer.stem("running"));
+        assertEquals("stop", TextAnalyzer.stem("stopped"));
+        assertEquals("quick", TextAnalyzer.stem("quickly"));
+        assertEquals(TextAnalyzer.stem("configure"), TextAnalyzer.stem("configured"));
+        assertEquals(TextAnalyzer.stem("configure"), TextAnalyzer.stem("configuring"));
+    }
+
+    @Test
+    void stemKeepsWordsThatWouldLoseAllVowels() {
+        assertEquals("string", TextAnalyzer.stem("string"));
+        assertEquals("spring", TextAnalyzer.stem("spring"));
+    }
+
+    @Test
+    void stemLeavesNonAlphabeticTokensAlone() {
+        assertEquals("java17", TextAnalyzer.stem("java17"));
+        assertEquals("c++", TextAnalyzer.stem("c++"));
+    }
+}
@@ -145,29 +145,28 @@ export const QuestionProvider = ({ children }) => {
 
   // Get questions by tags
   const getQuestionsByTags = useCallback(
-    async (tags, page = 0, size = 20, reset = false) => {
+    async (tags, cursor = null, size = 20, reset = false) => {
       try {
         setLoading(true);
         const response = await apiClient.get("/questions/tagged", {
-          params: { tags: tags.join(","), page, size },
+          params: { tags: tags.join(","), cursor, size },
         });
 
         const taggedQuestions = response.data.content;
 
-        if (reset || page === 0) {
+        if (reset || !cursor) {
           setQuestions(taggedQuestions);
         } else {
           setQuestions((prev) => [...prev, ...taggedQuestions]);
         }
 
-        setPagination({
-          page: response.data.number,
+        // Cursor pages carry no page number or totals
+        setPagination((prev) => ({
+          ...prev,
           size: response.data.size,
-          totalPages: response.data.totalPages,
-          totalElements: response.data.totalElements,
-          hasNext: !response.data.last,
-          hasPrevious: !response.data.first,
-        });
+          hasNext: response.data.hasNext,
+          nextCursor: response.data.nextCursor,
+        }));
 
         return response.data;
       } catch (error) {